@@ -0,0 +1,60 @@
+package benchmark;
+
+import implementation.CustomImplementationFactory;
+import interpreter.PrintScriptFormatter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormatterBenchmark {
+    private static final String LINE = "let   something:string=\"a really cool thing\";println(something+1);\n";
+    private static final byte[] CONFIG = """
+        {
+          "enforce-spacing-after-colon-in-declaration": true,
+          "enforce-spacing-around-equals": true,
+          "line-breaks-after-println": 1
+        }
+        """.getBytes();
+
+    @Param({"1.0", "1.1"})
+    public String version;
+
+    @Param({"1", "1024", "65536"})
+    public int lines;
+
+    private final PrintScriptFormatter formatter = new CustomImplementationFactory().formatter();
+    private byte[] program;
+    private List<Workloads.Case> corpus;
+
+    @Setup
+    public void setup() {
+        // Cada línea redeclara la variable, lo que al formatter no le importa
+        program = Workloads.repeat(LINE, lines);
+        corpus = Workloads.cases("formatter", version);
+    }
+
+    @Benchmark
+    public void generated(Blackhole bh) {
+        StringWriter writer = new StringWriter();
+        formatter.format(Workloads.stream(program), version, Workloads.stream(CONFIG), writer);
+        bh.consume(writer);
+    }
+
+    @Benchmark
+    public void corpus(Blackhole bh) {
+        for (Workloads.Case c : corpus) {
+            StringWriter writer = new StringWriter();
+            formatter.format(Workloads.stream(c.source()), version, Workloads.stream(c.config()), writer);
+            bh.consume(writer);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package benchmark;
+
+import implementation.CustomImplementationFactory;
+import interpreter.PrintScriptInterpreter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InterpreterBenchmark {
+    private static final String LINE = "println(\"This is a text\");\n";
+
+    @Param({"1.0", "1.1"})
+    public String version;
+
+    @Param({"1", "1024", "65536", "1048576"})
+    public int lines;
+
+    private final PrintScriptInterpreter interpreter = new CustomImplementationFactory().interpreter();
+    private byte[] program;
+    private List<Workloads.Case> corpus;
+
+    @Setup
+    public void setup() {
+        program = Workloads.repeat(LINE, lines);
+        corpus = Workloads.cases("print-statement", version);
+    }
+
+    @Benchmark
+    public void generated(Blackhole bh) {
+        interpreter.execute(Workloads.stream(program), version, bh::consume, bh::consume, name -> name);
+    }
+
+    @Benchmark
+    public void corpus(Blackhole bh) {
+        for (Workloads.Case c : corpus) {
+            interpreter.execute(Workloads.stream(c.source()), version, bh::consume, bh::consume, name -> name);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package benchmark;
+
+import implementation.CustomImplementationFactory;
+import interpreter.PrintScriptLinter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LinterBenchmark {
+    private static final String LINE = "let myVariable: string = \"a text\";\nprintln(myVariable);\n";
+    private static final byte[] CONFIG = """
+        {
+          "identifier_format": "camel case",
+          "mandatory-variable-or-literal-in-println": true
+        }
+        """.getBytes();
+
+    @Param({"1.0", "1.1"})
+    public String version;
+
+    @Param({"1", "1024", "65536"})
+    public int lines;
+
+    private final PrintScriptLinter linter = new CustomImplementationFactory().linter();
+    private byte[] program;
+    private List<Workloads.Case> corpus;
+
+    @Setup
+    public void setup() {
+        program = Workloads.repeat(LINE, lines);
+        corpus = Workloads.cases("linter", version);
+    }
+
+    @Benchmark
+    public void generated(Blackhole bh) {
+        linter.lint(Workloads.stream(program), version, Workloads.stream(CONFIG), bh::consume);
+    }
+
+    @Benchmark
+    public void corpus(Blackhole bh) {
+        for (Workloads.Case c : corpus) {
+            linter.lint(Workloads.stream(c.source()), version, Workloads.stream(c.config()), bh::consume);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tiempo de una invocación completa del CLI en una JVM nueva, como la paga un git hook.
+ * Con archive=none corre sin archivo CDS de la app; para medir con el de ./gradlew cdsArchive:
+ * -p archive=build/cds/printscript.jsa -Dprintscript.cli.classpath=&lt;el mismo classpath del archivo&gt;
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 20)
+@Fork(1)
+public class StartupBenchmark {
+    private static final String TRAINING = "src/cds/training/";
+
+    @Param({"run", "lint", "check"})
+    public String command;
+
+    @Param({"none"})
+    public String archive;
+
+    @Benchmark
+    public int invoke() throws IOException, InterruptedException {
+        List<String> cmd = new ArrayList<>();
+        cmd.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (!archive.equals("none")) cmd.add("-XX:SharedArchiveFile=" + archive);
+        cmd.add("-cp");
+        cmd.add(System.getProperty("printscript.cli.classpath", System.getProperty("java.class.path")));
+        cmd.add("implementation.cli.PrintScriptCli");
+        cmd.add(command);
+        if (command.equals("run")) {
+            cmd.add(TRAINING + "main.ps");
+        } else {
+            cmd.add(TRAINING);
+            cmd.add("--config");
+            cmd.add(TRAINING + "config.json");
+        }
+        Process process = new ProcessBuilder(cmd)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .redirectError(ProcessBuilder.Redirect.DISCARD)
+            .start();
+        process.getOutputStream().close(); // stdin vacío
+        return process.waitFor();
+    }
+}
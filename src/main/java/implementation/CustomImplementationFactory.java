@@ -2,26 +2,56 @@ package implementation;
 
 import implementation.formatter.MyPrintScriptFormatter;
 import implementation.interpreter.MyPrintScriptInterpreter;
+import implementation.limits.ResourceLimits;
 import implementation.linter.MyPrintScriptLinter;
+import implementation.metrics.PipelineMetrics;
 import interpreter.PrintScriptFormatter;
 import interpreter.PrintScriptInterpreter;
 import interpreter.PrintScriptLinter;
 
+/**
+ * Devuelve siempre las mismas instancias: el interpreter, el formatter y el linter son thread-safe
+ * (todo el estado de una ejecución es local a la llamada), así que una factory se comparte entre hilos
+ * sin crear objetos por request.
+ * <p>
+ * Del core no se asume que nada sea stateless salvo lo que ya se compartía antes: las listas de reglas del
+ * formatter se prestan de a una por formateo ({@link implementation.formatter.RulesCache}), cada lexer recibe
+ * su propio token resolver y cada lint arma su AnalyzerConfig sobre una copia del JSON. Lo único del core
+ * compartido entre hilos es el strategy provider de cada versión ({@link VersionProfile}), que el core ya
+ * expone como una instancia por versión.
+ */
 public class CustomImplementationFactory implements PrintScriptFactory {
 
+    private final MyPrintScriptInterpreter interpreter;
+    private final MyPrintScriptFormatter formatter = new MyPrintScriptFormatter();
+    private final MyPrintScriptLinter linter = new MyPrintScriptLinter();
+
+    public CustomImplementationFactory() {
+        this(PipelineMetrics.NOOP);
+    }
+
+    /** Los interpreters creados por esta factory reportan sus métricas a este listener. */
+    public CustomImplementationFactory(PipelineMetrics metrics) {
+        this(metrics, ResourceLimits.UNLIMITED);
+    }
+
+    /** Además de las métricas, cada ejecución se corta al superar estos límites. */
+    public CustomImplementationFactory(PipelineMetrics metrics, ResourceLimits limits) {
+        this.interpreter = new MyPrintScriptInterpreter(metrics, limits);
+    }
+
     @Override
     public PrintScriptInterpreter interpreter() {
-        return new MyPrintScriptInterpreter();
+        return interpreter;
     }
 
     @Override
     public PrintScriptFormatter formatter() {
-        return new MyPrintScriptFormatter();
+        return formatter;
     }
 
     @Override
     public PrintScriptLinter linter() {
-        // your PrintScript linter should be returned here.
-        return new MyPrintScriptLinter();
+        return linter;
     }
 }
@@ -1,11 +1,27 @@
 package implementation;
 
+import implementation.batch.BatchExecution;
+import implementation.batch.BatchRunner;
+import implementation.batch.ExecutionJob;
 import interpreter.PrintScriptFormatter;
 import interpreter.PrintScriptInterpreter;
 import interpreter.PrintScriptLinter;
 
+import java.util.Collection;
+import java.util.concurrent.Executor;
+
 public interface PrintScriptFactory {
     PrintScriptInterpreter interpreter();
     PrintScriptFormatter formatter();
     PrintScriptLinter linter();
+
+    /** Ejecuta todos los jobs en paralelo sobre virtual threads. */
+    default BatchExecution executeAll(Collection<ExecutionJob> jobs) {
+        return new BatchRunner(this).run(jobs);
+    }
+
+    /** Ejecuta todos los jobs en paralelo sobre el executor dado. */
+    default BatchExecution executeAll(Collection<ExecutionJob> jobs, Executor executor) {
+        return new BatchRunner(this).run(jobs, executor);
+    }
 }
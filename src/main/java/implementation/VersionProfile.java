@@ -0,0 +1,112 @@
+package implementation;
+
+import main.kotlin.lexer.Lexer;
+import main.kotlin.lexer.LexerFactory;
+import main.kotlin.lexer.TokenFactory;
+import org.Parser;
+import org.ParserFactory;
+import org.example.Interpreter;
+import org.example.input.Input;
+import org.example.output.Output;
+import org.example.strategy.PreConfiguredProviders;
+
+import java.io.Reader;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Piezas del pipeline para una versión de PrintScript: cómo armar lexers y parsers, y el strategy provider.
+ * Cada perfil se arma una sola vez y es inmutable, así que se comparte entre llamadas y entre hilos.
+ * Los token resolvers no se comparten: cada lexer recibe uno nuevo, igual que antes de existir esta clase,
+ * porque nada garantiza que sean stateless. El strategy provider sí se comparte, como ya pasaba
+ * (PreConfiguredProviders expone una instancia por versión).
+ * Para agregar una versión nueva alcanza con sumar su perfil en {@link #resolve(String)}.
+ */
+public final class VersionProfile {
+    public static final String V1_0 = "1.0";
+    public static final String V1_1 = "1.1";
+
+    private static final Map<String, VersionProfile> PROFILES = new ConcurrentHashMap<>();
+
+    private final String version;
+    private final Function<Reader, Lexer> lexerFactory;
+    private final Function<Reader, Lexer> formatterLexerFactory;
+    private final Function<Lexer, Parser> parserFactory;
+    private final BiFunction<Output, Input, Interpreter> interpreterFactory;
+    private final boolean supportsReadInput;
+
+    private VersionProfile(String version,
+                           Function<Reader, Lexer> lexerFactory,
+                           Function<Reader, Lexer> formatterLexerFactory,
+                           Function<Lexer, Parser> parserFactory,
+                           BiFunction<Output, Input, Interpreter> interpreterFactory,
+                           boolean supportsReadInput) {
+        this.version = version;
+        this.lexerFactory = lexerFactory;
+        this.formatterLexerFactory = formatterLexerFactory;
+        this.parserFactory = parserFactory;
+        this.interpreterFactory = interpreterFactory;
+        this.supportsReadInput = supportsReadInput;
+    }
+
+    /** Perfil para la versión pedida; cualquier versión que no sea 1.1 se trata como 1.0. */
+    public static VersionProfile of(String version) {
+        return PROFILES.computeIfAbsent(version.startsWith(V1_1) ? V1_1 : V1_0, VersionProfile::resolve);
+    }
+
+    private static VersionProfile resolve(String version) {
+        return switch (version) {
+            case V1_1 -> {
+                var strategyProvider = PreConfiguredProviders.INSTANCE.getVERSION_1_1();
+                yield new VersionProfile(V1_1,
+                    reader -> new Lexer(new TokenFactory().createLexerV11(), reader),
+                    LexerFactory.INSTANCE::createLexerV11,
+                    ParserFactory.INSTANCE::createParserV11,
+                    (output, input) -> new Interpreter(output, input, strategyProvider),
+                    true);
+            }
+            default -> {
+                var strategyProvider = PreConfiguredProviders.INSTANCE.getVERSION_1_0();
+                yield new VersionProfile(V1_0,
+                    reader -> new Lexer(new TokenFactory().createLexerV10(), reader),
+                    LexerFactory.INSTANCE::createLexerV10,
+                    ParserFactory.INSTANCE::createParserV10,
+                    (output, input) -> new Interpreter(output, input, strategyProvider),
+                    false);
+            }
+        };
+    }
+
+    public String version() {
+        return version;
+    }
+
+    public Lexer lexer(Reader reader) {
+        return lexerFactory.apply(reader);
+    }
+
+    /** Lexer y Parser sobre el Reader; el fuente se consume a medida que se piden statements. */
+    public Parser parser(Reader reader) {
+        return parserFactory.apply(lexer(reader));
+    }
+
+    /**
+     * Parser para el formatter. Usa el lexer de LexerFactory, como siempre lo hizo el formatter,
+     * en vez del armado con TokenFactory que usan el interpreter y el linter: así el stream de tokens
+     * (espacios y saltos de línea incluidos) es exactamente el que esperan las reglas de formato.
+     */
+    public Parser formatterParser(Reader reader) {
+        return parserFactory.apply(formatterLexerFactory.apply(reader));
+    }
+
+    public Interpreter interpreter(Output output, Input input) {
+        return interpreterFactory.apply(output, input);
+    }
+
+    /** readInput (y sus reglas de lint) existe a partir de 1.1. */
+    public boolean supportsReadInput() {
+        return supportsReadInput;
+    }
+}
@@ -0,0 +1,35 @@
+package implementation.batch;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/** Handle de un batch en curso: un future por job (en el orden recibido) y uno con el resumen. */
+public class BatchExecution {
+    private final List<CompletableFuture<JobResult>> results;
+    private final CompletableFuture<BatchSummary> summary;
+
+    BatchExecution(List<CompletableFuture<JobResult>> results, long startNanos) {
+        this.results = List.copyOf(results);
+        this.summary = CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+            .thenApply(ignored -> summarize(System.nanoTime() - startNanos));
+    }
+
+    public List<CompletableFuture<JobResult>> results() {
+        return results;
+    }
+
+    public CompletableFuture<BatchSummary> summary() {
+        return summary;
+    }
+
+    private BatchSummary summarize(long wallNanos) {
+        int failed = 0;
+        long busy = 0;
+        for (CompletableFuture<JobResult> future : results) {
+            JobResult result = future.join();
+            if (!result.succeeded()) failed++;
+            busy += result.elapsedNanos();
+        }
+        return new BatchSummary(results.size(), failed, wallNanos, busy);
+    }
+}
@@ -0,0 +1,69 @@
+package implementation.batch;
+
+import implementation.PrintScriptFactory;
+import interpreter.ErrorHandler;
+import interpreter.PrintScriptInterpreter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Ejecuta muchos programas en paralelo sobre un Executor.
+ * Los jobs comparten el interpreter de la factory, que es thread-safe: no hay estado mutable compartido entre jobs.
+ * Si no se pasa un Executor se usa uno de virtual threads (un hilo por job) que se apaga solo al terminar.
+ */
+public class BatchRunner {
+    private final PrintScriptFactory factory;
+
+    public BatchRunner(PrintScriptFactory factory) {
+        this.factory = factory;
+    }
+
+    public BatchExecution run(Collection<ExecutionJob> jobs) {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            return run(jobs, executor);
+        } finally {
+            // shutdown no cancela lo ya enviado: los jobs terminan y el executor se libera
+            executor.shutdown();
+        }
+    }
+
+    public BatchExecution run(Collection<ExecutionJob> jobs, Executor executor) {
+        long start = System.nanoTime();
+        List<CompletableFuture<JobResult>> results = new ArrayList<>(jobs.size());
+        for (ExecutionJob job : jobs) {
+            results.add(CompletableFuture.supplyAsync(() -> execute(job), executor));
+        }
+        return new BatchExecution(results, start);
+    }
+
+    /** Ejecuta un job en el hilo actual, contando los errores que reporta. */
+    public JobResult execute(ExecutionJob job) {
+        PrintScriptInterpreter interpreter = factory.interpreter();
+        CountingErrorHandler handler = new CountingErrorHandler(job.handler());
+        long start = System.nanoTime();
+        interpreter.execute(job.source(), job.version(), job.emitter(), handler, job.provider());
+        return new JobResult(job, System.nanoTime() - start, handler.count);
+    }
+
+    private static class CountingErrorHandler implements ErrorHandler {
+        private final ErrorHandler delegate;
+        private int count = 0;
+
+        CountingErrorHandler(ErrorHandler delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void reportError(String message) {
+            count++;
+            delegate.reportError(message);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package implementation.batch;
+
+/**
+ * Tiempos agregados de un batch.
+ * wallNanos va desde el submit hasta que termina el último job; busyNanos es la suma de los tiempos de cada job.
+ */
+public record BatchSummary(int jobs, int failedJobs, long wallNanos, long busyNanos) {
+}
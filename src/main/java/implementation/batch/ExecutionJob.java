@@ -0,0 +1,19 @@
+package implementation.batch;
+
+import interpreter.ErrorHandler;
+import interpreter.InputProvider;
+import interpreter.PrintEmitter;
+
+import java.io.InputStream;
+
+/**
+ * Un programa a ejecutar dentro de un batch, con los mismos parámetros que
+ * {@link interpreter.PrintScriptInterpreter#execute}.
+ * Los emitters, handlers y providers de cada job sólo los usa el hilo que corre ese job.
+ */
+public record ExecutionJob(InputStream source,
+                           String version,
+                           InputProvider provider,
+                           PrintEmitter emitter,
+                           ErrorHandler handler) {
+}
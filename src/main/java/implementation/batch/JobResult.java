@@ -0,0 +1,8 @@
+package implementation.batch;
+
+/** Resultado de un job: cuánto tardó y cuántos errores reportó a su ErrorHandler. */
+public record JobResult(ExecutionJob job, long elapsedNanos, int errorCount) {
+    public boolean succeeded() {
+        return errorCount == 0;
+    }
+}
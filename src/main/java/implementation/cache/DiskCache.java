@@ -0,0 +1,127 @@
+package implementation.cache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Tier en disco de {@link ResultCache}: un archivo por clave en dir/ab/abcdef...
+ * Las escrituras van a un temporal en el mismo directorio y se renombran atómicamente,
+ * así un proceso que lee en paralelo (o que se cortó a mitad) nunca ve un archivo a medio escribir.
+ * Cuando el total supera maxBytes se borran los archivos usados hace más tiempo (se toca la fecha
+ * de modificación en cada hit) hasta bajar al 90%.
+ * Es best-effort: cualquier error de IO se trata como un miss.
+ */
+public class DiskCache {
+    private static final String TMP_SUFFIX = ".tmp";
+
+    private final Path dir;
+    private final long maxBytes;
+    private final AtomicLong size;
+
+    public DiskCache(Path dir, long maxBytes) throws IOException {
+        if (maxBytes <= 0) throw new IllegalArgumentException("maxBytes must be positive: " + maxBytes);
+        this.dir = Files.createDirectories(dir);
+        this.maxBytes = maxBytes;
+        long total = 0;
+        for (Entry entry : entries()) total += entry.size();
+        this.size = new AtomicLong(total);
+    }
+
+    /** Devuelve el contenido guardado para key, o null si no está. */
+    public byte[] get(String key) {
+        Path file = fileFor(key);
+        try {
+            byte[] bytes = Files.readAllBytes(file);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return bytes;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public void put(String key, byte[] value) {
+        Path file = fileFor(key);
+        Path tmp = null;
+        try {
+            Files.createDirectories(file.getParent());
+            tmp = Files.createTempFile(file.getParent(), key, TMP_SUFFIX);
+            Files.write(tmp, value);
+            long previous = Files.exists(file) ? Files.size(file) : 0;
+            try {
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            tmp = null;
+            if (size.addAndGet(value.length - previous) > maxBytes) evict();
+        } catch (IOException e) {
+            // Sin lugar o sin permisos: se sigue sin persistir
+        } finally {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    public long sizeInBytes() {
+        return size.get();
+    }
+
+    // Sincronizado para que dos hilos no desalojen a la vez; los lectores no se bloquean
+    private synchronized void evict() throws IOException {
+        if (size.get() <= maxBytes) return;
+        List<Entry> entries = entries();
+        entries.sort(Comparator.comparing(Entry::lastModified));
+        long total = 0;
+        for (Entry entry : entries) total += entry.size();
+        long target = maxBytes - maxBytes / 10;
+        for (Entry entry : entries) {
+            if (total <= target) break;
+            try {
+                Files.delete(entry.file());
+                total -= entry.size();
+            } catch (NoSuchFileException e) {
+                // Otro proceso ya lo borró
+                total -= entry.size();
+            }
+        }
+        size.set(total);
+    }
+
+    private List<Entry> entries() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(dir, 2)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (!Files.isRegularFile(file) || file.getFileName().toString().endsWith(TMP_SUFFIX)) continue;
+                try {
+                    entries.add(new Entry(file, Files.size(file), Files.getLastModifiedTime(file)));
+                } catch (NoSuchFileException ignored) {
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return entries;
+    }
+
+    private Path fileFor(String key) {
+        return dir.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    private record Entry(Path file, long size, FileTime lastModified) {
+    }
+}
@@ -0,0 +1,147 @@
+package implementation.cache;
+
+import implementation.util.Hashing;
+import implementation.util.LruCache;
+import main.kotlin.analyzer.DefaultAnalyzer;
+import main.kotlin.lexer.Lexer;
+import org.Parser;
+import org.example.formatter.Formatter;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Cache de resultados direccionado por contenido para el formatter y el linter.
+ * La clave es el SHA-256 de (herramienta, build id, versión, config, fuente): si nada de eso cambió,
+ * el resultado tampoco, así que en un hit sólo se paga el hash.
+ * Tiene un tier en memoria (LRU acotado por bytes de los resultados guardados, sin contar las claves ni el
+ * overhead de cada entrada) y opcionalmente uno en disco que sobrevive entre corridas, por ejemplo en CI.
+ * El build id tiene que cambiar cuando cambia el código que produce los resultados, el del core o el de este adapter:
+ * por defecto es el hash de los jars (o directorios de clases) de ambos, ver {@link #defaultBuildId()}.
+ */
+public class ResultCache {
+    public static final long DEFAULT_MEMORY_BYTES = 64L * 1024 * 1024;
+
+    private final LruCache<String, byte[]> memory;
+    private final DiskCache disk;
+    private final byte[] buildId;
+
+    public ResultCache() {
+        this(DEFAULT_MEMORY_BYTES, null);
+    }
+
+    public ResultCache(long maxMemoryBytes, DiskCache disk) {
+        this(maxMemoryBytes, disk, defaultBuildId());
+    }
+
+    public ResultCache(long maxMemoryBytes, DiskCache disk, String buildId) {
+        this.memory = new LruCache<>(maxMemoryBytes, value -> value.length);
+        this.disk = disk;
+        this.buildId = buildId.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public String key(String tool, String version, byte[] config, byte[] source) {
+        return Hashing.sha256(tool.getBytes(StandardCharsets.UTF_8), buildId,
+            version.getBytes(StandardCharsets.UTF_8), config, source);
+    }
+
+    /**
+     * Devuelve el resultado para key, buscando primero en memoria y después en disco.
+     * Si no está en ninguno lo calcula y lo guarda en ambos. Si compute tira excepción no se guarda nada.
+     */
+    public byte[] get(String key, Supplier<byte[]> compute) {
+        return memory.get(key, k -> {
+            byte[] stored = disk == null ? null : disk.get(k);
+            if (stored != null) return stored;
+            byte[] value = compute.get();
+            if (disk != null) disk.put(k, value);
+            return value;
+        });
+    }
+
+    /** Hits del tier en memoria; un miss puede haberse resuelto desde disco. */
+    public long getHits() {
+        return memory.getHits();
+    }
+
+    public long getMisses() {
+        return memory.getMisses();
+    }
+
+    /** Bytes de resultados guardados en el tier en memoria. */
+    public long memoryBytes() {
+        return memory.weight();
+    }
+
+    public void clearMemory() {
+        memory.clear();
+    }
+
+    /**
+     * Hash del código del core (lexer, parser, analyzer, formatter) y del adapter: de cada jar el contenido,
+     * de cada directorio de clases sus .class. Se calcula una vez por proceso. Si algún origen no se puede leer
+     * se usa su Implementation-Version, y sin eso "dev": en ese caso conviene pasar un build id explícito.
+     */
+    public static String defaultBuildId() {
+        return BuildId.VALUE;
+    }
+
+    private static final class BuildId {
+        static final String VALUE = compute();
+
+        private static String compute() {
+            List<Class<?>> anchors = List.of(Lexer.class, Parser.class, DefaultAnalyzer.class, Formatter.class, ResultCache.class);
+            Set<Path> seen = new LinkedHashSet<>();
+            List<byte[]> parts = new ArrayList<>();
+            for (Class<?> anchor : anchors) {
+                Path location = location(anchor);
+                if (location != null && !seen.add(location)) continue;
+                parts.add(digest(anchor, location).getBytes(StandardCharsets.UTF_8));
+            }
+            return Hashing.sha256(parts.toArray(new byte[0][]));
+        }
+
+        private static Path location(Class<?> anchor) {
+            CodeSource source = anchor.getProtectionDomain().getCodeSource();
+            if (source == null || source.getLocation() == null) return null;
+            try {
+                return Path.of(source.getLocation().toURI());
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        private static String digest(Class<?> anchor, Path location) {
+            try {
+                if (location != null && Files.isRegularFile(location)) return Hashing.sha256(Files.readAllBytes(location));
+                if (location != null && Files.isDirectory(location)) return directoryDigest(location);
+            } catch (IOException e) {
+                // Se cae a la versión del jar
+            }
+            String version = anchor.getPackage().getImplementationVersion();
+            return anchor.getName() + ":" + (version != null ? version : "dev");
+        }
+
+        // Path relativo y contenido de cada .class, en orden, para que no dependa del orden del filesystem
+        private static String directoryDigest(Path dir) throws IOException {
+            List<byte[]> parts = new ArrayList<>();
+            try (Stream<Path> files = Files.walk(dir)) {
+                for (Path file : files.filter(f -> f.toString().endsWith(".class")).sorted().toList()) {
+                    parts.add(dir.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+                    parts.add(Files.readAllBytes(file));
+                }
+            }
+            return Hashing.sha256(parts.toArray(new byte[0][]));
+        }
+    }
+}
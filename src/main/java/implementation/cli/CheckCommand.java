@@ -0,0 +1,18 @@
+package implementation.cli;
+
+import implementation.formatter.FormatMode;
+
+import java.io.IOException;
+import java.io.PrintStream;
+
+/** {@code check}: lint más chequeo de formato, sin modificar archivos. Para pre-commit hooks. */
+final class CheckCommand {
+    private CheckCommand() {
+    }
+
+    static int run(PrintScriptCli.Options options, PrintStream out, PrintStream err) throws IOException {
+        int lint = LintCommand.report(LintCommand.lint(options), out);
+        int format = FormatCommand.report(FormatCommand.format(options, FormatMode.CHECK), FormatMode.CHECK, out, err);
+        return Math.max(lint, format);
+    }
+}
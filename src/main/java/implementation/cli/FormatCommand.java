@@ -0,0 +1,40 @@
+package implementation.cli;
+
+import implementation.formatter.FileFormatResult;
+import implementation.formatter.FormatMode;
+import implementation.formatter.MyPrintScriptFormatter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/** {@code format}: reescribe los archivos que cambian y lista cuáles fueron. Sólo carga el formatter. */
+final class FormatCommand {
+    private FormatCommand() {
+    }
+
+    static int run(PrintScriptCli.Options options, PrintStream out, PrintStream err) throws IOException {
+        return report(format(options, FormatMode.WRITE), FormatMode.WRITE, out, err);
+    }
+
+    static List<FileFormatResult> format(PrintScriptCli.Options options, FormatMode mode) throws IOException {
+        return new MyPrintScriptFormatter().formatTree(options.path(), options.version(), options.configBytes(), mode,
+            ForkJoinPool.commonPool());
+    }
+
+    /** @return 1 si algún archivo falló o, en CHECK, quedó sin formatear. */
+    static int report(List<FileFormatResult> results, FormatMode mode, PrintStream out, PrintStream err) {
+        int status = 0;
+        for (FileFormatResult result : results) {
+            if (result.failed()) {
+                err.println(result.file() + ": " + result.error());
+                status = 1;
+            } else if (result.changed()) {
+                out.println(result.file() + (mode == FormatMode.WRITE ? ": formatted" : ": not formatted"));
+                if (mode == FormatMode.CHECK) status = 1;
+            }
+        }
+        return status;
+    }
+}
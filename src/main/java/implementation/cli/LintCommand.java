@@ -0,0 +1,36 @@
+package implementation.cli;
+
+import implementation.linter.FileLintResult;
+import implementation.linter.MyPrintScriptLinter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/** {@code lint}: imprime los diagnósticos de cada archivo. Sólo carga el linter (Gson y el analyzer). */
+final class LintCommand {
+    private LintCommand() {
+    }
+
+    static int run(PrintScriptCli.Options options, PrintStream out, PrintStream err) throws IOException {
+        return report(lint(options), out);
+    }
+
+    static List<FileLintResult> lint(PrintScriptCli.Options options) throws IOException {
+        return new MyPrintScriptLinter().lintTree(options.path(), options.version(), options.configBytes(),
+            ForkJoinPool.commonPool());
+    }
+
+    /** @return 1 si algún archivo tiene diagnósticos. */
+    static int report(List<FileLintResult> results, PrintStream out) {
+        int status = 0;
+        for (FileLintResult result : results) {
+            for (String diagnostic : result.diagnostics()) {
+                out.println(result.file() + ": " + diagnostic);
+                status = 1;
+            }
+        }
+        return status;
+    }
+}
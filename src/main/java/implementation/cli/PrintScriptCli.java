@@ -0,0 +1,84 @@
+package implementation.cli;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Punto de entrada de línea de comandos:
+ * <pre>
+ *   run    &lt;file&gt;            [--version v]                 ejecuta; readInput lee líneas de stdin
+ *   format &lt;file|dir&gt;        [--version v] [--config c]    reescribe en el lugar los que cambian
+ *   lint   &lt;file|dir&gt;        [--version v] [--config c]    imprime diagnósticos
+ *   check  &lt;file|dir&gt;        [--version v] [--config c]    lint + formato sin escribir nada
+ * </pre>
+ * Sale con 0 si todo está bien, 1 si hubo errores o archivos por corregir y 2 si los argumentos son inválidos.
+ *
+ * Pensado para invocaciones cortas (git hooks): cada comando vive en su propia clase y esta no referencia
+ * a ninguna herramienta, así que {@code run} no carga Gson, el analyzer ni el formatter y
+ * {@code lint} no carga el interpreter. Ver la task cdsArchive en build.gradle para el archivo AppCDS.
+ */
+public class PrintScriptCli {
+    private PrintScriptCli() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.in, System.out, System.err));
+    }
+
+    /** Corre un comando con los streams dados en lugar de los del proceso; devuelve el código de salida. */
+    public static int run(String[] args, InputStream in, PrintStream out, PrintStream err) {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println("usage: printscript <run|format|lint|check> <path> [--version v] [--config file]");
+            return 2;
+        }
+        if (!Files.exists(options.path())) {
+            err.println("No such file: " + options.path());
+            return 2;
+        }
+        try {
+            return switch (options.command()) {
+                case "run" -> RunCommand.run(options, in, out, err);
+                case "format" -> FormatCommand.run(options, out, err);
+                case "lint" -> LintCommand.run(options, out, err);
+                case "check" -> CheckCommand.run(options, out, err);
+                default -> throw new IllegalStateException(options.command());
+            };
+        } catch (Exception e) {
+            err.println(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            return 1;
+        }
+    }
+
+    record Options(String command, Path path, String version, Path config) {
+        static Options parse(String[] args) {
+            if (args.length < 2) throw new IllegalArgumentException("Missing command or path");
+            String command = args[0];
+            if (!command.matches("run|format|lint|check")) throw new IllegalArgumentException("Unknown command: " + command);
+            Path path = Path.of(args[1]);
+            String version = "1.1";
+            Path config = null;
+            for (int i = 2; i < args.length; i++) {
+                if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + args[i]);
+                switch (args[i]) {
+                    case "--version" -> version = args[++i];
+                    case "--config" -> config = Path.of(args[++i]);
+                    default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            return new Options(command, path, version, config);
+        }
+
+        /** Sin --config se usa la config vacía (todo por defecto). */
+        byte[] configBytes() throws IOException {
+            return config == null ? "{}".getBytes(StandardCharsets.UTF_8) : Files.readAllBytes(config);
+        }
+    }
+}
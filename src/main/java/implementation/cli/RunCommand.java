@@ -0,0 +1,37 @@
+package implementation.cli;
+
+import implementation.interpreter.MyPrintScriptInterpreter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/** {@code run}: sólo carga el interpreter (lexer, parser e interpreter del core). */
+final class RunCommand {
+    private RunCommand() {
+    }
+
+    static int run(PrintScriptCli.Options options, InputStream in, PrintStream out, PrintStream err) {
+        BufferedReader stdin = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        int[] errors = {0};
+        new MyPrintScriptInterpreter().execute(options.path(), options.version(), out::println, message -> {
+            errors[0]++;
+            err.println(message);
+        }, name -> {
+            try {
+                String line = stdin.readLine();
+                // El core no acepta null como input: sin más líneas la ejecución falla con un error claro
+                if (line == null) throw new IllegalStateException("No input for '" + name + "': stdin is closed");
+                return line;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        out.flush();
+        return errors[0] == 0 ? 0 : 1;
+    }
+}
@@ -0,0 +1,50 @@
+package implementation.daemon;
+
+import implementation.daemon.DaemonProtocol.Request;
+import implementation.daemon.DaemonProtocol.Response;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Cliente mínimo del daemon para hooks y tests. Una conexión sirve para muchas requests;
+ * no es thread-safe, cada hilo usa su propio cliente.
+ */
+public class DaemonClient implements Closeable {
+    private final SocketChannel channel;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+
+    private DaemonClient(SocketChannel channel) {
+        this.channel = channel;
+        this.in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+    }
+
+    public static DaemonClient connect(SocketAddress address) throws IOException {
+        SocketChannel channel = address instanceof UnixDomainSocketAddress
+            ? SocketChannel.open(StandardProtocolFamily.UNIX)
+            : SocketChannel.open();
+        channel.connect(address);
+        return new DaemonClient(channel);
+    }
+
+    public Response send(Request request) throws IOException {
+        request.write(out);
+        return Response.read(in);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
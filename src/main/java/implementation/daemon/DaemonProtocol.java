@@ -0,0 +1,168 @@
+package implementation.daemon;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Protocolo binario del daemon. Cada conexión manda una secuencia de requests y recibe una respuesta por cada una,
+ * en orden. Todo entero es big-endian de 4 bytes y todo texto va como largo + UTF-8.
+ *
+ * Request:  op (1 byte) + versión + config + fuente + inputs (cantidad + textos).
+ * Response: status (1 byte) + output (cantidad + textos) + errores (cantidad + textos).
+ *
+ * Un frame completo (todos sus campos) no puede pasar de {@link #MAX_FRAME_BYTES} ni una lista de
+ * {@link #MAX_LIST_SIZE} elementos, así un frame malo no hace reservar memoria de más; un frame truncado es un error.
+ * Los mismos límites se aplican al escribir: una request que no entra falla antes de mandar nada, y una respuesta
+ * que no entra (por ejemplo, un programa que imprime más líneas que MAX_LIST_SIZE) se reemplaza por un error.
+ */
+public final class DaemonProtocol {
+    public static final int MAX_FRAME_BYTES = 64 * 1024 * 1024;
+    public static final int MAX_LIST_SIZE = 64 * 1024;
+
+    private DaemonProtocol() {
+    }
+
+    public enum Op {
+        FORMAT, LINT, EXECUTE;
+
+        static Op of(int code) throws IOException {
+            if (code < 0 || code >= values().length) throw new IOException("Unknown op: " + code);
+            return values()[code];
+        }
+    }
+
+    /** Para FORMAT y LINT la config es el JSON de siempre; en EXECUTE se ignora, igual que inputs fuera de EXECUTE. */
+    public record Request(Op op, String version, byte[] config, byte[] source, List<String> inputs) {
+
+        /** @return null si el cliente cerró la conexión entre requests. */
+        public static Request read(DataInputStream in) throws IOException {
+            int op = in.read();
+            if (op < 0) return null;
+            Frame frame = new Frame(in);
+            return new Request(Op.of(op), frame.string(), frame.bytes(), frame.bytes(), frame.strings());
+        }
+
+        public void write(DataOutputStream out) throws IOException {
+            String tooLarge = tooManyItems(inputs);
+            if (tooLarge != null) throw new IOException("Request too large: " + tooLarge);
+            byte[] versionBytes = version.getBytes(StandardCharsets.UTF_8);
+            List<byte[]> encodedInputs = encode(inputs);
+            tooLarge = tooManyBytes(versionBytes.length + (long) config.length + source.length, encodedInputs);
+            if (tooLarge != null) throw new IOException("Request too large: " + tooLarge);
+            out.writeByte(op.ordinal());
+            writeBytes(out, versionBytes);
+            writeBytes(out, config);
+            writeBytes(out, source);
+            writeStrings(out, encodedInputs);
+            out.flush();
+        }
+    }
+
+    /**
+     * @param ok     false si la request no se pudo procesar (por ejemplo, el formatter tiró excepción).
+     *               Los errores de lint o de ejecución vienen en errors con ok en true.
+     * @param output el fuente formateado (un elemento) o lo que imprimió el programa, línea por línea.
+     */
+    public record Response(boolean ok, List<String> output, List<String> errors) {
+
+        public static Response read(DataInputStream in) throws IOException {
+            boolean ok = in.readByte() == 0;
+            Frame frame = new Frame(in);
+            return new Response(ok, frame.strings(), frame.strings());
+        }
+
+        /** Si no entra en un frame se manda, en su lugar, una respuesta con ok en false que explica por qué. */
+        public void write(DataOutputStream out) throws IOException {
+            String tooLarge = tooManyItems(output, errors);
+            if (tooLarge != null) {
+                tooLarge(tooLarge).write(out);
+                return;
+            }
+            List<byte[]> encodedOutput = encode(output);
+            List<byte[]> encodedErrors = encode(errors);
+            tooLarge = tooManyBytes(0, encodedOutput, encodedErrors);
+            if (tooLarge != null) {
+                tooLarge(tooLarge).write(out);
+                return;
+            }
+            out.writeByte(ok ? 0 : 1);
+            writeStrings(out, encodedOutput);
+            writeStrings(out, encodedErrors);
+            out.flush();
+        }
+
+        private static Response tooLarge(String reason) {
+            return new Response(false, List.of(), List.of("Response too large: " + reason));
+        }
+    }
+
+    /** Lectura de los campos de un frame, descontando cada uno de lo que le queda al frame. */
+    private static final class Frame {
+        private final DataInputStream in;
+        private int remaining = MAX_FRAME_BYTES;
+
+        Frame(DataInputStream in) {
+            this.in = in;
+        }
+
+        byte[] bytes() throws IOException {
+            int length = in.readInt();
+            if (length < 0 || length > remaining) throw new IOException("Invalid field length: " + length);
+            remaining -= length;
+            byte[] bytes = new byte[length];
+            // readFully: si la conexión se corta a mitad del campo es EOFException, no un campo más corto
+            in.readFully(bytes);
+            return bytes;
+        }
+
+        String string() throws IOException {
+            return new String(bytes(), StandardCharsets.UTF_8);
+        }
+
+        List<String> strings() throws IOException {
+            int count = in.readInt();
+            if (count < 0 || count > MAX_LIST_SIZE) throw new IOException("Invalid count: " + count);
+            List<String> strings = new ArrayList<>(Math.min(count, 1024));
+            for (int i = 0; i < count; i++) strings.add(string());
+            return strings;
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static List<byte[]> encode(List<String> strings) {
+        List<byte[]> encoded = new ArrayList<>(strings.size());
+        for (String s : strings) encoded.add(s.getBytes(StandardCharsets.UTF_8));
+        return encoded;
+    }
+
+    // Lo mismo que chequea Frame al leer, antes de codificar nada; null si las listas entran
+    @SafeVarargs
+    private static String tooManyItems(List<String>... lists) {
+        for (List<String> list : lists) {
+            if (list.size() > MAX_LIST_SIZE) return list.size() + " items in a list (max " + MAX_LIST_SIZE + ")";
+        }
+        return null;
+    }
+
+    // bytes: lo que ya suman los otros campos del frame; null si el frame entra
+    @SafeVarargs
+    private static String tooManyBytes(long bytes, List<byte[]>... lists) {
+        for (List<byte[]> list : lists) {
+            for (byte[] item : list) bytes += item.length;
+        }
+        return bytes > MAX_FRAME_BYTES ? bytes + " bytes (max " + MAX_FRAME_BYTES + ")" : null;
+    }
+
+    private static void writeStrings(DataOutputStream out, List<byte[]> encoded) throws IOException {
+        out.writeInt(encoded.size());
+        for (byte[] bytes : encoded) writeBytes(out, bytes);
+    }
+}
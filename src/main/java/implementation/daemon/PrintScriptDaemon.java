@@ -0,0 +1,193 @@
+package implementation.daemon;
+
+import implementation.CustomImplementationFactory;
+import implementation.PrintScriptFactory;
+import implementation.daemon.DaemonProtocol.Request;
+import implementation.daemon.DaemonProtocol.Response;
+import implementation.interpreter.MyPrintScriptInterpreter;
+import implementation.limits.ResourceLimits;
+import interpreter.PrintScriptInterpreter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Daemon de larga vida que atiende requests de format, lint y execute (ver {@link DaemonProtocol}).
+ * Evita arrancar una JVM por request: las clases del core ya están cargadas y compiladas por el JIT,
+ * y los caches de reglas y configs de la factory siguen calientes entre requests.
+ * Escucha en un socket Unix o en un puerto de localhost; cada conexión se atiende en su propio virtual thread.
+ * Cada EXECUTE corre con {@link #DEFAULT_EXECUTE_LIMITS} (o los que se pasen a start), así un script que se cuelga
+ * esperando input o imprime sin parar no retiene la conexión ni la memoria del daemon.
+ *
+ * Uso: {@code PrintScriptDaemon --socket /tmp/printscript.sock} o {@code PrintScriptDaemon --port 7878}.
+ */
+public class PrintScriptDaemon implements Closeable {
+    /** 10 segundos y 16M caracteres impresos: la salida se junta en memoria para la respuesta. */
+    public static final ResourceLimits DEFAULT_EXECUTE_LIMITS = ResourceLimits.UNLIMITED
+        .withMaxWallTime(Duration.ofSeconds(10))
+        .withMaxOutputChars(16L * 1024 * 1024);
+
+    private final PrintScriptFactory factory;
+    private final ResourceLimits executeLimits;
+    private final ServerSocketChannel server;
+    private final Path socketFile;
+
+    private PrintScriptDaemon(PrintScriptFactory factory, ResourceLimits executeLimits, ServerSocketChannel server, Path socketFile) {
+        this.factory = factory;
+        this.executeLimits = executeLimits;
+        this.server = server;
+        this.socketFile = socketFile;
+    }
+
+    public static PrintScriptDaemon start(PrintScriptFactory factory, SocketAddress address) throws IOException {
+        return start(factory, address, DEFAULT_EXECUTE_LIMITS);
+    }
+
+    /**
+     * Abre el socket y empieza a aceptar conexiones en un hilo aparte.
+     * Si address es un socket Unix y el archivo quedó de una corrida anterior, se reemplaza; si todavía hay
+     * un daemon escuchando en él, falla en lugar de robarle el socket.
+     * executeLimits se aplica a cada EXECUTE cuando el interpreter de la factory es {@link MyPrintScriptInterpreter}.
+     */
+    public static PrintScriptDaemon start(PrintScriptFactory factory, SocketAddress address, ResourceLimits executeLimits)
+        throws IOException {
+        ServerSocketChannel server;
+        Path socketFile = null;
+        if (address instanceof UnixDomainSocketAddress unix) {
+            socketFile = unix.getPath();
+            if (Files.exists(socketFile)) {
+                if (isListening(unix)) throw new IOException("A daemon is already listening on " + socketFile);
+                Files.deleteIfExists(socketFile);
+            }
+            server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        } else {
+            server = ServerSocketChannel.open();
+        }
+        server.bind(address);
+        PrintScriptDaemon daemon = new PrintScriptDaemon(factory, executeLimits, server, socketFile);
+        Thread.ofPlatform().name("printscript-daemon").daemon(false).start(daemon::acceptLoop);
+        return daemon;
+    }
+
+    // Un socket que quedó de un daemon muerto rechaza la conexión; uno vivo la acepta
+    private static boolean isListening(UnixDomainSocketAddress address) {
+        try (SocketChannel probe = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            probe.connect(address);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public SocketAddress address() throws IOException {
+        return server.getLocalAddress();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        if (socketFile != null) Files.deleteIfExists(socketFile);
+    }
+
+    private void acceptLoop() {
+        while (server.isOpen()) {
+            try {
+                SocketChannel client = server.accept();
+                Thread.ofVirtual().name("printscript-daemon-client").start(() -> serve(client));
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                // Una conexión fallida no tira abajo el daemon
+            }
+        }
+    }
+
+    private void serve(SocketChannel client) {
+        try (client;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(client)));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(client)))) {
+            Request request;
+            while ((request = Request.read(in)) != null) {
+                handle(request).write(out);
+            }
+        } catch (IOException e) {
+            // El cliente se fue o mandó un frame inválido: se cierra sólo esta conexión
+        }
+    }
+
+    Response handle(Request request) {
+        List<String> output = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        try {
+            switch (request.op()) {
+                case FORMAT -> {
+                    StringWriter writer = new StringWriter();
+                    factory.formatter().format(new ByteArrayInputStream(request.source()), request.version(),
+                        new ByteArrayInputStream(request.config()), writer);
+                    output.add(writer.toString());
+                }
+                case LINT -> factory.linter().lint(new ByteArrayInputStream(request.source()), request.version(),
+                    new ByteArrayInputStream(request.config()), errors::add);
+                case EXECUTE -> {
+                    ArrayDeque<String> inputs = new ArrayDeque<>(request.inputs());
+                    PrintScriptInterpreter interpreter = factory.interpreter();
+                    if (interpreter instanceof MyPrintScriptInterpreter limited) {
+                        limited.execute(new ByteArrayInputStream(request.source()), request.version(),
+                            output::add, errors::add, name -> inputs.poll(), executeLimits);
+                    } else {
+                        interpreter.execute(new ByteArrayInputStream(request.source()), request.version(),
+                            output::add, errors::add, name -> inputs.poll());
+                    }
+                }
+            }
+            return new Response(true, output, errors);
+        } catch (Throwable e) {
+            // También errores (StackOverflowError, OutOfMemoryError del core): la conexión sigue y el cliente recibe respuesta
+            errors.add(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            return new Response(false, output, errors);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        SocketAddress address;
+        if (args.length == 2 && args[0].equals("--socket")) {
+            address = UnixDomainSocketAddress.of(args[1]);
+        } else if (args.length == 2 && args[0].equals("--port")) {
+            // Sólo loopback: el daemon no tiene autenticación
+            address = new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(args[1]));
+        } else {
+            System.err.println("usage: PrintScriptDaemon --socket <path> | --port <port>");
+            System.exit(2);
+            return;
+        }
+        PrintScriptDaemon daemon = start(new CustomImplementationFactory(), address);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                daemon.close();
+            } catch (IOException ignored) {
+            }
+        }));
+        System.out.println("PrintScript daemon listening on " + daemon.address());
+    }
+}
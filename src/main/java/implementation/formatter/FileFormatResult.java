@@ -0,0 +1,10 @@
+package implementation.formatter;
+
+import java.nio.file.Path;
+
+/** Resultado de formatear un archivo en un formateo masivo; error es null si no hubo fallas. */
+public record FileFormatResult(Path file, boolean changed, String error) {
+    public boolean failed() {
+        return error != null;
+    }
+}
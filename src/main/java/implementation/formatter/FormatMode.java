@@ -0,0 +1,9 @@
+package implementation.formatter;
+
+/** Qué hacer con cada archivo en un formateo masivo. */
+public enum FormatMode {
+    /** Sólo informar qué archivos cambiarían (equivalente a --check). */
+    CHECK,
+    /** Reescribir en el lugar los archivos que cambian. */
+    WRITE
+}
@@ -0,0 +1,141 @@
+package implementation.formatter;
+
+import implementation.util.StatementScanner;
+import rules.Rule;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Sesión de formateo incremental para un documento abierto en un editor.
+ * Recuerda dónde empieza cada statement de primer nivel y, ante una edición, vuelve a formatear sólo
+ * los statements tocados y sus vecinos. Devuelve los cambios como {@link TextEdit}s mínimos, que la sesión
+ * ya aplicó sobre su copia del documento. No es thread-safe: una sesión por documento.
+ */
+public class FormatterSession {
+    private final String version;
+    private final List<Rule> rules;
+    private final StringBuilder text;
+    // Inicio de cada statement (nunca vacía: el primero es 0); el segmento i va de starts[i] a starts[i + 1] o al final
+    private final List<Integer> starts = new ArrayList<>();
+
+    FormatterSession(String version, List<Rule> rules, String initialText) {
+        this.version = version;
+        this.rules = rules;
+        this.text = new StringBuilder(initialText);
+        starts.addAll(StatementScanner.scan(text, 0, text.length()).starts());
+    }
+
+    public String text() {
+        return text.toString();
+    }
+
+    /** Formatea el documento completo; útil al abrirlo. Los {@link TextEdit} son del texto actual y se aplican en orden. */
+    public List<TextEdit> formatAll() {
+        starts.clear();
+        return reformat(0, text.length(), 0);
+    }
+
+    /**
+     * Aplica una edición del usuario y devuelve los cambios de formato resultantes. offset y removedLength
+     * son del documento antes del cambio del usuario; los {@link TextEdit} devueltos, del documento con ese
+     * cambio ya aplicado, y se aplican en orden.
+     */
+    public List<TextEdit> edit(int offset, int removedLength, String inserted) {
+        if (offset < 0 || removedLength < 0 || offset + removedLength > text.length()) {
+            throw new IndexOutOfBoundsException("edit [" + offset + ", " + (offset + removedLength) + ") outside document of length " + text.length());
+        }
+        int oldEnd = offset + removedLength;
+        int delta = inserted.length() - removedLength;
+
+        // Segmentos tocados (en coordenadas viejas) más un vecino de cada lado
+        int first = Math.max(0, segmentAt(offset) - 1);
+        int last = Math.min(starts.size() - 1, segmentAt(oldEnd) + 1);
+        int regionStart = starts.get(first);
+        int regionEnd = last + 1 < starts.size() ? starts.get(last + 1) + delta : text.length() + delta;
+
+        text.replace(offset, oldEnd, inserted);
+        starts.subList(first, last + 1).clear();
+        shift(first, delta);
+        return reformat(regionStart, regionEnd, first);
+    }
+
+    /**
+     * Vuelve a formatear [regionStart, regionEnd). Los starts de la región ya no están en la lista;
+     * index es la posición donde van.
+     */
+    private List<TextEdit> reformat(int regionStart, int regionEnd, int index) {
+        // Si el último statement quedó a medio escribir, se suma el siguiente hasta cerrar o llegar al final
+        StatementScanner.Result scan = StatementScanner.scan(text, regionStart, regionEnd);
+        while (!scan.complete() && index < starts.size()) {
+            regionEnd = index + 1 < starts.size() ? starts.get(index + 1) : text.length();
+            starts.remove(index);
+            scan = StatementScanner.scan(text, regionStart, regionEnd);
+        }
+
+        String original = text.substring(regionStart, regionEnd);
+        String formatted = formatRegion(original, regionEnd == text.length());
+        if (formatted == null || formatted.equals(original)) {
+            starts.addAll(index, scan.starts());
+            return Collections.emptyList();
+        }
+
+        // Diff mínimo: se descartan el prefijo y el sufijo en común
+        int prefix = 0;
+        int maxPrefix = Math.min(original.length(), formatted.length());
+        while (prefix < maxPrefix && original.charAt(prefix) == formatted.charAt(prefix)) prefix++;
+        int suffix = 0;
+        while (suffix < maxPrefix - prefix
+            && original.charAt(original.length() - 1 - suffix) == formatted.charAt(formatted.length() - 1 - suffix)) {
+            suffix++;
+        }
+        TextEdit edit = new TextEdit(regionStart + prefix, original.length() - prefix - suffix,
+            formatted.substring(prefix, formatted.length() - suffix));
+
+        text.replace(edit.offset(), edit.offset() + edit.length(), edit.newText());
+        List<Integer> regionStarts = StatementScanner.scan(text, regionStart, regionStart + formatted.length()).starts();
+        starts.addAll(index, regionStarts);
+        shift(index + regionStarts.size(), formatted.length() - original.length());
+        return List.of(edit);
+    }
+
+    /** null si la región no se puede formatear (por ejemplo, con errores de sintaxis mientras se tipea). */
+    private String formatRegion(String region, boolean endOfDocument) {
+        if (region.isBlank()) return null;
+        try {
+            String formatted = new Runner(version, new StringReader(region)).formatRaw(rules, version);
+            if (!endOfDocument) return formatted;
+            // Al final del documento se recortan los saltos de línea, igual que al formatear todo
+            int end = formatted.length();
+            while (end > 0 && formatted.charAt(end - 1) == '\n') end--;
+            return formatted.substring(0, end);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private int segmentAt(int offset) {
+        int lo = 0;
+        int hi = starts.size() - 1;
+        int found = 0;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts.get(mid) <= offset) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    private void shift(int fromIndex, int delta) {
+        if (delta == 0) return;
+        for (int i = fromIndex; i < starts.size(); i++) {
+            starts.set(i, starts.get(i) + delta);
+        }
+    }
+}
@@ -1,22 +0,0 @@
-package implementation.formatter;
-
-import java.io.BufferedReader;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-
-public class JsonCreator {
-    public String getJsonStringFromInputStream(InputStream inputStream) {
-        try {
-            BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(inputStream));
-            StringBuilder sb = new StringBuilder();
-            String line;
-            while ((line = bufferedReader.readLine()) != null) {
-                sb.append(line).append('\n');
-            }
-            return sb.toString();
-        } catch (Exception e) {
-            throw new RuntimeException("Error reading JSON config: " + e.getMessage(), e);
-        }
-    }
-}
-
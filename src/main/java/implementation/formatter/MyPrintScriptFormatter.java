@@ -1,30 +1,167 @@
 package implementation.formatter;
 
-import implementation.util.InputStreamToStringReader;
+import implementation.cache.ResultCache;
+import implementation.util.MappedSourceReader;
+import implementation.util.SourceTree;
 import interpreter.PrintScriptFormatter;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import static implementation.util.InputStreamToStringReader.convert;
 
+/**
+ * Thread-safe: las reglas salen del {@link RulesCache}, que nunca presta la misma lista a dos formateos
+ * a la vez, y el resto del estado de cada formateo es local a la llamada. Las sesiones de {@link #openSession} no lo son: una por documento.
+ */
 public class MyPrintScriptFormatter implements PrintScriptFormatter {
 
+    // Compartido entre todas las instancias creadas sin cache propio (la factory tiene una sola, pero hay más con new)
+    private static final RulesCache SHARED_RULES_CACHE = new RulesCache();
+
+    private final RulesCache rulesCache;
+    private final ResultCache results;
+
+    public MyPrintScriptFormatter() {
+        this(SHARED_RULES_CACHE);
+    }
+
+    public MyPrintScriptFormatter(RulesCache rulesCache) {
+        this(rulesCache, null);
+    }
+
+    /**
+     * Con results != null cada resultado se guarda por contenido: formatear de nuevo un archivo sin cambios
+     * (misma config y versión) sólo cuesta leerlo y hashearlo. A cambio el fuente se lee entero antes de formatear.
+     */
+    public MyPrintScriptFormatter(RulesCache rulesCache, ResultCache results) {
+        this.rulesCache = rulesCache;
+        this.results = results;
+    }
+
     @Override
     public void format(InputStream src, String version, InputStream config, Writer writer) {
+        if (results == null) {
+            format(convert(src), version, config, writer);
+            return;
+        }
         try {
-            Reader reader = convert(src);
-            Runner runner = new Runner(version, reader);
+            // Se decodifica igual que sin cache: convert usa el charset por defecto
+            writer.write(formatCached(src.readAllBytes(), Charset.defaultCharset(), version, config.readAllBytes()));
+        } catch (IOException e) {
+            throw new RuntimeException("Formatter error: " + e.getMessage(), e);
+        }
+    }
 
-            JsonCreator jsonCreator = new JsonCreator();
-            String configJson = jsonCreator.getJsonStringFromInputStream(config);
+    /**
+     * Igual que {@link #format(InputStream, String, InputStream, Writer)} pero leyendo el fuente
+     * desde un archivo, decodificado como UTF-8 (mapeado en memoria sólo si es grande, ver
+     * {@link MappedSourceReader#openSource}).
+     */
+    public void format(Path src, String version, InputStream config, Writer writer) {
+        try {
+            if (results != null) {
+                writer.write(formatCached(Files.readAllBytes(src), StandardCharsets.UTF_8, version, config.readAllBytes()));
+                return;
+            }
+            format(MappedSourceReader.openSource(src), version, config, writer);
+        } catch (IOException e) {
+            throw new RuntimeException("Formatter error: " + e.getMessage(), e);
+        }
+    }
 
-            String result = runner.format(configJson, version).getFormattedCode();
-            writer.write(result);
+    private void format(Reader reader, String version, InputStream config, Writer writer) {
+        try {
+            Runner runner = new Runner(version, reader);
+
+            try (RulesCache.Lease rules = rulesCache.acquire(config.readAllBytes(), version)) {
+                runner.formatTo(rules.rules(), version, writer);
+            }
         } catch (Exception e) {
             throw new RuntimeException("Formatter error: " + e.getMessage(), e);
         }
     }
-}
 
+    /** charset es con el que se decodifica el fuente; entra en la clave porque los mismos bytes pueden dar otro texto. */
+    private String formatCached(byte[] source, Charset charset, String version, byte[] configBytes) {
+        String key = results.key("format/" + charset.name(), version, configBytes, source);
+        byte[] formatted = results.get(key, () -> {
+            StringWriter out = new StringWriter();
+            format(new StringReader(new String(source, charset)), version,
+                new ByteArrayInputStream(configBytes), out);
+            return out.toString().getBytes(StandardCharsets.UTF_8);
+        });
+        return new String(formatted, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Abre una sesión de formateo incremental sobre el texto de un documento.
+     * Las reglas salen del mismo cache que usa {@link #format}; la sesión se queda con su lista
+     * (no vuelve al pool), así no la comparte con ningún otro formateo.
+     */
+    public FormatterSession openSession(String text, String version, InputStream config) throws IOException {
+        return new FormatterSession(version, rulesCache.acquire(config.readAllBytes(), version).rules(), text);
+    }
+
+    /**
+     * Formatea todos los .ps bajo root en paralelo sobre el ForkJoinPool común.
+     * En CHECK sólo informa qué archivos cambiarían; en WRITE los reescribe en el lugar.
+     * Los resultados vienen ordenados por path.
+     */
+    public List<FileFormatResult> formatTree(Path root, String version, Path config, FormatMode mode) throws IOException {
+        return formatTree(root, version, config, mode, ForkJoinPool.commonPool());
+    }
+
+    public List<FileFormatResult> formatTree(Path root, String version, Path config, FormatMode mode, ForkJoinPool pool) throws IOException {
+        return formatTree(root, version, Files.readAllBytes(config), mode, pool);
+    }
+
+    /**
+     * Un error al recorrer root sale como IOException; los de cada archivo (lectura, formateo o escritura)
+     * van en el {@link FileFormatResult} de ese archivo.
+     */
+    public List<FileFormatResult> formatTree(Path root, String version, byte[] configBytes, FormatMode mode, ForkJoinPool pool) throws IOException {
+        return SourceTree.processAll(root, pool, file -> {
+            try {
+                // Se lee una sola vez: los mismos bytes sirven para formatear y para comparar
+                byte[] source = Files.readAllBytes(file);
+                String original = new String(source, StandardCharsets.UTF_8);
+                String formatted;
+                if (results != null) {
+                    formatted = formatCached(source, StandardCharsets.UTF_8, version, configBytes);
+                } else {
+                    StringWriter out = new StringWriter();
+                    format(new StringReader(original), version, new ByteArrayInputStream(configBytes), out);
+                    formatted = out.toString();
+                }
+                // La salida del formatter viene sin saltos de línea finales: se conserva el del archivo,
+                // si no casi todo archivo bien formateado figuraría como cambiado
+                formatted = withTrailingNewlineOf(original, formatted);
+                boolean changed = !formatted.equals(original);
+                if (changed && mode == FormatMode.WRITE) {
+                    Files.writeString(file, formatted, StandardCharsets.UTF_8);
+                }
+                return new FileFormatResult(file, changed, null);
+            } catch (Exception e) {
+                return new FileFormatResult(file, false, e.getMessage());
+            }
+        });
+    }
+
+    private static String withTrailingNewlineOf(String original, String formatted) {
+        if (formatted.isEmpty() || formatted.endsWith("\n")) return formatted;
+        if (original.endsWith("\n")) return formatted + "\n";
+        return formatted;
+    }
+}
@@ -0,0 +1,89 @@
+package implementation.formatter;
+
+import implementation.VersionProfile;
+import implementation.util.Hashing;
+import implementation.util.LruCache;
+import implementation.util.ScratchPool;
+import org.example.formatter.RulesFactory;
+import rules.Rule;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Cache LRU thread-safe de reglas de formateo ya construidas.
+ * La clave es el SHA-256 de los bytes de la config más la versión normalizada ({@link VersionProfile#version()}),
+ * así que dos configs con el mismo contenido comparten entrada aunque vengan de streams distintos.
+ *
+ * No se asume que las reglas del core sean stateless: cada entrada guarda un pool de listas de reglas y
+ * una lista la usa un solo formateo a la vez. En un hit con el pool vacío se vuelven a construir las reglas
+ * desde el JSON ya leído; en régimen hay tantas listas como formateos concurrentes con esa config.
+ */
+public class RulesCache {
+    public static final int DEFAULT_CAPACITY = 64;
+    private static final int LISTS_PER_CONFIG = Runtime.getRuntime().availableProcessors() * 2;
+
+    private final LruCache<Key, ScratchPool<List<Rule>>> entries;
+
+    public RulesCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public RulesCache(int capacity) {
+        this.entries = new LruCache<>(capacity);
+    }
+
+    /**
+     * Reglas para uso exclusivo de quien llama hasta que cierre el lease.
+     * Usar con try-with-resources; una lista que no se devuelve simplemente no se reusa.
+     */
+    public Lease acquire(byte[] configBytes, String version) {
+        String profileVersion = VersionProfile.of(version).version();
+        ScratchPool<List<Rule>> pool = entries.get(new Key(Hashing.sha256(configBytes), profileVersion), key -> {
+            String configJson = new String(configBytes, StandardCharsets.UTF_8);
+            return new ScratchPool<>(LISTS_PER_CONFIG,
+                () -> List.copyOf(new RulesFactory().getRules(configJson, profileVersion)),
+                rules -> true);
+        });
+        return new Lease(pool, pool.acquire());
+    }
+
+    public long getHits() {
+        return entries.getHits();
+    }
+
+    public long getMisses() {
+        return entries.getMisses();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    /** Lista de reglas prestada por el cache; close la devuelve al pool de su config. */
+    public static final class Lease implements AutoCloseable {
+        private final ScratchPool<List<Rule>> pool;
+        private final List<Rule> rules;
+
+        private Lease(ScratchPool<List<Rule>> pool, List<Rule> rules) {
+            this.pool = pool;
+            this.rules = rules;
+        }
+
+        public List<Rule> rules() {
+            return rules;
+        }
+
+        @Override
+        public void close() {
+            pool.release(rules);
+        }
+    }
+
+    private record Key(String configHash, String version) {
+    }
+}
@@ -1,8 +1,7 @@
 package implementation.formatter;
 
-import main.kotlin.lexer.LexerFactory;
+import implementation.VersionProfile;
 import org.Parser;
-import org.ParserFactory;
 import org.example.formatter.FormatResult;
 import org.example.formatter.Formatter;
 import org.example.formatter.RulesFactory;
@@ -10,8 +9,13 @@ import rules.Rule;
 
 import java.io.BufferedReader;
 import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.List;
 
+/**
+ * Formatea un fuente; cada Runner es de un solo uso y lo usa un solo hilo.
+ */
 public class Runner {
     private final String version;
     private final String sourceCode;
@@ -22,35 +26,45 @@ public class Runner {
     }
 
     public FormattedResult format(String configJson, String version) {
+        StringWriter out = new StringWriter();
+        formatTo(configJson, version, out);
+        return new FormattedResult(out.toString());
+    }
+
+    /**
+     * Formatea el código y lo escribe directamente en el writer,
+     * sin los saltos de línea finales y sin copias intermedias del resultado.
+     */
+    public void formatTo(String configJson, String version, Writer writer) {
+        // Crear las reglas desde el JSON
+        RulesFactory rulesFactory = new RulesFactory();
+        formatTo(rulesFactory.getRules(configJson, version), version, writer);
+    }
+
+    /** Igual que {@link #formatTo(String, String, Writer)} pero con reglas ya construidas (por ejemplo, cacheadas). */
+    public void formatTo(List<Rule> rules, String version, Writer writer) {
         try {
-            // Crear Lexer según la versión
-            var lexer = version.startsWith("1.1") 
-                ? LexerFactory.INSTANCE.createLexerV11(new java.io.StringReader(sourceCode))
-                : LexerFactory.INSTANCE.createLexerV10(new java.io.StringReader(sourceCode));
-            
-            // Crear Parser según la versión
-            Parser parser = version.startsWith("1.1")
-                ? ParserFactory.INSTANCE.createParserV11(lexer)
-                : ParserFactory.INSTANCE.createParserV10(lexer);
+            // Escribir eliminando los saltos de línea al final
+            TrailingNewlineWriter out = new TrailingNewlineWriter(writer);
+            out.write(formatRaw(rules, version));
+            out.flush();
+        } catch (Exception e) {
+            throw new RuntimeException("Formatter error: " + e.getMessage(), e);
+        }
+    }
+
+    /** Código formateado tal como lo devuelve el core, con los saltos de línea finales incluidos. */
+    String formatRaw(List<Rule> rules, String version) {
+        try {
+            // Crear Lexer y Parser según la versión
+            Parser parser = VersionProfile.of(version).formatterParser(new java.io.StringReader(sourceCode));
             
             // Crear el Formatter (el parser implementa PrintScriptIterator) pasando también el source original
             Formatter formatter = new Formatter(parser, sourceCode);
             
-            // Crear las reglas desde el JSON
-            RulesFactory rulesFactory = new RulesFactory();
-            List<Rule> rules = rulesFactory.getRules(configJson, version);
-            
             // Formatear el código
             FormatResult result = formatter.format(rules);
-            String formattedCode = result.getCode();
-            
-            // Eliminar todos los saltos de línea al final
-            while (formattedCode.endsWith("\n")) {
-                formattedCode = formattedCode.substring(0, formattedCode.length() - 1);
-            }
-            
-            return new FormattedResult(formattedCode);
-            
+            return result.getCode();
         } catch (Exception e) {
             throw new RuntimeException("Formatter error: " + e.getMessage(), e);
         }
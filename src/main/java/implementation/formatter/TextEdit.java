@@ -0,0 +1,8 @@
+package implementation.formatter;
+
+/**
+ * Reemplazo de length caracteres a partir de offset por newText. Los offsets son del documento tal como está
+ * justo antes de aplicar este TextEdit; en {@link FormatterSession#edit} eso es el documento con el cambio del usuario ya aplicado.
+ */
+public record TextEdit(int offset, int length, String newText) {
+}
@@ -0,0 +1,65 @@
+package implementation.formatter;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writer que descarta los saltos de línea al final de la salida.
+ * En lugar de copiar el resultado para recortarlo, retiene los '\n' pendientes
+ * y sólo los escribe si después llega algún otro carácter.
+ * No cierra el writer subyacente: los saltos pendientes al terminar simplemente se descartan.
+ */
+public class TrailingNewlineWriter extends Writer {
+    private final Writer delegate;
+    private int pendingNewlines = 0;
+
+    public TrailingNewlineWriter(Writer delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        int last = off + len - 1;
+        while (last >= off && cbuf[last] == '\n') {
+            last--;
+        }
+        if (last < off) {
+            pendingNewlines += len;
+            return;
+        }
+        flushPendingNewlines();
+        delegate.write(cbuf, off, last - off + 1);
+        pendingNewlines = off + len - 1 - last;
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        int last = off + len - 1;
+        while (last >= off && str.charAt(last) == '\n') {
+            last--;
+        }
+        if (last < off) {
+            pendingNewlines += len;
+            return;
+        }
+        flushPendingNewlines();
+        delegate.write(str, off, last - off + 1);
+        pendingNewlines = off + len - 1 - last;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        delegate.flush();
+    }
+
+    @Override
+    public void close() {
+        pendingNewlines = 0;
+    }
+
+    private void flushPendingNewlines() throws IOException {
+        for (; pendingNewlines > 0; pendingNewlines--) {
+            delegate.write('\n');
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package implementation.interpreter;
+
+import implementation.VersionProfile;
+import implementation.util.Hashing;
+import implementation.util.StatementScanner;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Programa ya validado, listo para ejecutarse muchas veces con distintos inputs.
+ * No es un AST compilado: guarda el fuente tal cual (decodificado), la versión y el hash del fuente original,
+ * para detectar artefactos desactualizados, y cada ejecución vuelve a lexear y parsear ese texto.
+ * Los nodos del AST son públicos (el linter los junta en una lista para el analyzer), pero el core sólo
+ * interpreta desde un {@link org.Parser}, y un Parser sólo se arma sobre un Lexer con ParserFactory: no hay
+ * forma de pasarle al Interpreter nodos ya parseados. Hasta que el core tenga esa entrada, lo que se ahorra es
+ * la lectura, la decodificación y la validación; como el texto no se toca, las líneas y columnas de los errores
+ * son las del archivo original.
+ *
+ * Formato binario: "PSC" + formato (1 byte) + versión (UTF) + hash (UTF) + cantidad de statements (int)
+ * + largo del programa (int) + programa en UTF-8.
+ */
+public final class CompiledProgram {
+    private static final byte[] MAGIC = {'P', 'S', 'C'};
+    // 1 guardaba el fuente normalizado, con otras posiciones: esos artefactos hay que recompilarlos
+    private static final int FORMAT = 2;
+
+    private final String version;
+    private final String sourceHash;
+    private final int statements;
+    private final String program;
+
+    private CompiledProgram(String version, String sourceHash, int statements, String program) {
+        this.version = version;
+        this.sourceHash = sourceHash;
+        this.statements = statements;
+        this.program = program;
+    }
+
+    /**
+     * Parsea el fuente completo una vez sólo para validarlo: un error de sintaxis aparece acá, con su posición
+     * en el archivo, y no en cada ejecución. Los nodos se descartan (ver la doc de la clase). No ejecuta nada.
+     */
+    static CompiledProgram compile(byte[] source, String version) {
+        VersionProfile profile = VersionProfile.of(version);
+        String text = new String(source, StandardCharsets.UTF_8);
+        List<Integer> starts = StatementScanner.scan(text, 0, text.length()).starts();
+        int statements = 0;
+        for (int i = 0; i < starts.size(); i++) {
+            int end = i + 1 < starts.size() ? starts.get(i + 1) : text.length();
+            if (!text.substring(starts.get(i), end).isBlank()) statements++;
+        }
+        var parser = profile.parser(new StringReader(text));
+        while (parser.hasNext()) parser.next();
+        return new CompiledProgram(profile.version(), Hashing.sha256(source), statements, text);
+    }
+
+    public static CompiledProgram read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        byte[] magic = new byte[MAGIC.length];
+        data.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC)) throw new IOException("Not a compiled PrintScript program");
+        int format = data.readUnsignedByte();
+        if (format != FORMAT) throw new IOException("Unsupported compiled program format: " + format);
+        String version = data.readUTF();
+        String hash = data.readUTF();
+        int statements = data.readInt();
+        int length = data.readInt();
+        if (length < 0) throw new IOException("Corrupt compiled program: negative length " + length);
+        // Un artefacto truncado termina en EOFException, no en un programa cortado
+        byte[] program = new byte[length];
+        data.readFully(program);
+        return new CompiledProgram(version, hash, statements, new String(program, StandardCharsets.UTF_8));
+    }
+
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(MAGIC);
+        data.writeByte(FORMAT);
+        data.writeUTF(version);
+        data.writeUTF(sourceHash);
+        data.writeInt(statements);
+        byte[] bytes = program.getBytes(StandardCharsets.UTF_8);
+        data.writeInt(bytes.length);
+        data.write(bytes);
+        data.flush();
+    }
+
+    /** true si el artefacto se compiló a partir de exactamente estos bytes. */
+    public boolean isCompiledFrom(byte[] source) {
+        return sourceHash.equals(Hashing.sha256(source));
+    }
+
+    public String version() {
+        return version;
+    }
+
+    public String sourceHash() {
+        return sourceHash;
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    String program() {
+        return program;
+    }
+}
@@ -1,20 +1,109 @@
 package implementation.interpreter;
 
+import implementation.limits.ExecutionCancelledException;
+import implementation.limits.ResourceBudget;
+import implementation.metrics.RunMetrics;
+import interpreter.AsyncInputProvider;
 import interpreter.InputProvider;
 import org.example.input.Input;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 public class CustomInput implements Input {
     private final InputProvider provider;
+    private final RunMetrics metrics;
+    private final ResourceBudget budget;
+    private final CustomOutput output;
+    private final AsyncInputProvider asyncProvider;
 
     public CustomInput(InputProvider provider) {
+        this(provider, null, null, null);
+    }
+
+    /**
+     * metrics y budget son opcionales.
+     * @param output si no es null, se vacían sus prints pendientes antes de pedir cada input.
+     */
+    public CustomInput(InputProvider provider, RunMetrics metrics, ResourceBudget budget, CustomOutput output) {
         this.provider = provider;
+        this.metrics = metrics;
+        this.budget = budget;
+        this.output = output;
+        this.asyncProvider = provider instanceof AsyncInputProvider a ? a : null;
     }
 
     @NotNull
     @Override
     public String read(@NotNull String message) {
-        return provider.input(message);
+        if (output != null) output.flush();
+        if (budget != null) budget.checkpoint();
+        String value;
+        if (metrics == null) {
+            value = input(message);
+        } else {
+            long start = System.nanoTime();
+            value = input(message);
+            metrics.input(System.nanoTime() - start);
+        }
+        if (budget != null && value != null) budget.chargeInput(value.length());
+        return value;
+    }
+
+    private String input(String message) {
+        if (asyncProvider != null) return awaitInput(asyncProvider.inputAsync(message));
+        return budget != null && budget.isInterruptible() ? inputOffThread(message) : provider.input(message);
+    }
+
+    /**
+     * Con un handle o un límite de tiempo la ejecución se puede cancelar o vencer, pero un provider sincrónico
+     * puede ignorar la interrupción y bloquear el hilo del script para siempre. Por eso se llama en un virtual thread
+     * propio y se espera como uno asincrónico; si se deja de esperar, ese hilo se interrumpe y, si igual responde,
+     * la respuesta se descarta. Sin nada que pueda cortar la espera se llama directo, en el hilo del script.
+     */
+    private String inputOffThread(String message) {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        Thread reader = Thread.ofVirtual().name("printscript-input").start(() -> {
+            try {
+                pending.complete(provider.input(message));
+            } catch (Throwable e) {
+                pending.completeExceptionally(e);
+            }
+        });
+        try {
+            return awaitInput(pending);
+        } finally {
+            if (pending.isCancelled()) reader.interrupt();
+        }
+    }
+
+    /**
+     * Espera la respuesta estacionando el hilo: en un virtual thread libera el carrier hasta que se complete.
+     * La espera se corta si vence el tiempo de la ejecución o si se cancela (cancel interrumpe el hilo).
+     */
+    private String awaitInput(CompletableFuture<String> pending) {
+        try {
+            return budget == null ? pending.get() : pending.get(budget.remainingNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            pending.cancel(false);
+            throw budget.expire();
+        } catch (InterruptedException e) {
+            pending.cancel(false);
+            Thread.currentThread().interrupt();
+            if (budget != null) budget.checkpoint();
+            throw new ExecutionCancelledException();
+        } catch (CancellationException e) {
+            // El provider canceló su propio future: para el script es como cancelar la ejecución
+            if (budget != null) budget.checkpoint();
+            throw new ExecutionCancelledException();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException r ? r : new RuntimeException(cause.getMessage(), cause);
+        }
     }
 }
 
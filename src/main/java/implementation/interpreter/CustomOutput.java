@@ -1,26 +1,99 @@
 package implementation.interpreter;
 
+import implementation.limits.ResourceBudget;
+import implementation.metrics.RunMetrics;
+import implementation.util.ScratchPool;
+import interpreter.BatchingPrintEmitter;
+import interpreter.CharSequencePrintEmitter;
 import interpreter.PrintEmitter;
 import org.example.output.Output;
 import org.jetbrains.annotations.NotNull;
 
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 public class CustomOutput implements Output {
 
+    /** Máximo de mensajes que se acumulan antes de llamar a printBatch. */
+    public static final int BATCH_SIZE = 256;
+
+    // Las listas de lotes se reusan entre ejecuciones; nunca crecen más allá de BATCH_SIZE
+    private static final ScratchPool<ArrayList<CharSequence>> BATCHES =
+        new ScratchPool<>(Runtime.getRuntime().availableProcessors() * 2, () -> new ArrayList<>(BATCH_SIZE), list -> {
+            list.clear();
+            return true;
+        });
+
     private final PrintEmitter printer;
+    private final RunMetrics metrics;
+    private final ResourceBudget budget;
+    // Sólo si el emitter acepta lotes; si no, cada print se emite en el momento como siempre
+    private final BatchingPrintEmitter batchingPrinter;
+    private final ArrayList<CharSequence> batch;
+    // Si el emitter acepta rangos, el salto de línea se recorta sin substring
+    private final CharSequencePrintEmitter rangePrinter;
 
     public CustomOutput(PrintEmitter printer) {
+        this(printer, null, null);
+    }
+
+    /** metrics y budget son opcionales (null si no se miden ni se limitan). */
+    public CustomOutput(PrintEmitter printer, RunMetrics metrics, ResourceBudget budget) {
         this.printer = printer;
+        this.metrics = metrics;
+        this.budget = budget;
+        this.batchingPrinter = printer instanceof BatchingPrintEmitter b ? b : null;
+        this.batch = batchingPrinter != null ? BATCHES.acquire() : null;
+        this.rangePrinter = batchingPrinter == null && printer instanceof CharSequencePrintEmitter c ? c : null;
     }
 
     @Override
     public void write(@NotNull String s) {
-        try {
-            String cleanMsg = s.endsWith("\n") ? s.substring(0, s.length() - 1) : s;
-            printer.print(cleanMsg);
-        } catch (OutOfMemoryError e) {
-            // Re-lanzar para que sea capturado por MyPrintScriptInterpreter
-            throw e;
+        int length = s.endsWith("\n") ? s.length() - 1 : s.length();
+        if (budget != null) budget.chargeOutput(length);
+        if (batch != null) {
+            // Vista sin el salto de línea, sin copiar el mensaje; sin salto va el String tal cual
+            batch.add(length == s.length() ? s : CharBuffer.wrap(s, 0, length));
+            if (batch.size() >= BATCH_SIZE) flush();
+            return;
+        }
+        if (metrics == null) {
+            emit(s, length);
+            return;
+        }
+        long start = System.nanoTime();
+        emit(s, length);
+        metrics.emit(System.nanoTime() - start);
+    }
+
+    private void emit(String s, int length) {
+        if (rangePrinter != null) {
+            rangePrinter.print(s, 0, length);
+        } else {
+            // substring(0, s.length()) devuelve el mismo String, así que sólo copia si hay que recortar
+            printer.print(s.substring(0, length));
         }
     }
+
+    /** Emite los mensajes acumulados. Se llama al llenarse el lote, antes de cada input y al terminar. */
+    public void flush() {
+        if (batch == null || batch.isEmpty()) return;
+        List<CharSequence> view = Collections.unmodifiableList(batch);
+        if (metrics == null) {
+            batchingPrinter.printBatch(view);
+        } else {
+            long start = System.nanoTime();
+            batchingPrinter.printBatch(view);
+            metrics.emit(System.nanoTime() - start, batch.size());
+        }
+        batch.clear();
+    }
+
+    /** Devuelve el lote al pool; después de esto no se puede seguir escribiendo. Llamar después del último flush. */
+    public void release() {
+        if (batch != null) BATCHES.release(batch);
+    }
 }
 
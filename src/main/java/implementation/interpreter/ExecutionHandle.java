@@ -0,0 +1,106 @@
+package implementation.interpreter;
+
+import implementation.limits.ResourceBudget;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Handle de una ejecución asíncrona. La cancelación es cooperativa: se marca el budget, que corta la
+ * ejecución en el próximo chequeo, y se interrumpe el hilo por si está bloqueado en el InputProvider.
+ * El límite de tiempo funciona igual: un timer marca el budget como vencido e interrumpe el hilo al llegar el plazo.
+ */
+public class ExecutionHandle {
+    // Un solo hilo para todos los plazos: las tareas sólo marcan el budget e interrumpen
+    private static final ScheduledThreadPoolExecutor DEADLINES = newDeadlineTimer();
+
+    private final ResourceBudget budget;
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    // worker e interrupted se tocan bajo el lock, así no se interrumpe al hilo después de que terminó
+    private Thread worker;
+    private boolean interrupted;
+
+    ExecutionHandle(ResourceBudget budget) {
+        this.budget = budget;
+        budget.markInterruptible();
+    }
+
+    /** Corre la tarea en el hilo actual; también la usa execute para los límites de tiempo sincrónicos. */
+    void run(Runnable task) {
+        synchronized (this) {
+            worker = Thread.currentThread();
+        }
+        ScheduledFuture<?> deadline = budget.hasDeadline()
+            ? DEADLINES.schedule(this::expire, budget.remainingNanos(), TimeUnit.NANOSECONDS)
+            : null;
+        try {
+            task.run();
+        } finally {
+            if (deadline != null) deadline.cancel(false);
+            synchronized (this) {
+                worker = null;
+                // Una interrupción nuestra que nadie consumió no tiene que llegarle a quien llamó
+                if (interrupted) Thread.interrupted();
+            }
+            completion.complete(null);
+        }
+    }
+
+    public void cancel() {
+        budget.cancel();
+        interruptWorker();
+    }
+
+    private void expire() {
+        budget.timeOut();
+        interruptWorker();
+    }
+
+    private synchronized void interruptWorker() {
+        if (worker == null) return;
+        interrupted = true;
+        worker.interrupt();
+    }
+
+    public boolean isCancelled() {
+        return budget.isCancelled();
+    }
+
+    public boolean isDone() {
+        return completion.isDone();
+    }
+
+    /** Se completa cuando la ejecución termina, bien o con error (los errores van al ErrorHandler). */
+    public CompletableFuture<Void> completion() {
+        return completion;
+    }
+
+    /** Espera a que termine; devuelve false si no terminó en ese tiempo. */
+    public boolean await(Duration timeout) throws InterruptedException {
+        try {
+            completion.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            // completion nunca se completa con excepción
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ScheduledThreadPoolExecutor newDeadlineTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "printscript-deadlines");
+            t.setDaemon(true);
+            return t;
+        });
+        // Las ejecuciones que terminan a tiempo cancelan su plazo; sin esto quedarían en la cola hasta vencer
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+}
@@ -1,18 +1,51 @@
 package implementation.interpreter;
 
-import implementation.util.InputStreamToStringReader;
+import implementation.limits.ExecutionCancelledException;
+import implementation.limits.LimitedSourceReader;
+import implementation.limits.ResourceBudget;
+import implementation.limits.ResourceLimitExceededException;
+import implementation.limits.ResourceLimits;
+import implementation.metrics.CountingInputStream;
+import implementation.metrics.PipelineMetrics;
+import implementation.metrics.RunMetrics;
+import implementation.util.MappedSourceReader;
+import interpreter.AsyncInputProvider;
 import interpreter.ErrorHandler;
 import interpreter.InputProvider;
 import interpreter.PrintEmitter;
 import interpreter.PrintScriptInterpreter;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.io.StringReader;
+import java.nio.file.Path;
 
 import static implementation.util.InputStreamToStringReader.convert;
 
+/**
+ * Thread-safe: una instancia se comparte entre hilos y cada ejecución arma su propio lexer, parser,
+ * interpreter y output. Lo único compartido son los {@link implementation.VersionProfile} (inmutables)
+ * y los pools de estado temporal.
+ */
 public class MyPrintScriptInterpreter implements PrintScriptInterpreter {
-    
+
+    private final PipelineMetrics metrics;
+    private final ResourceLimits limits;
+
+    public MyPrintScriptInterpreter() {
+        this(PipelineMetrics.NOOP);
+    }
+
+    public MyPrintScriptInterpreter(PipelineMetrics metrics) {
+        this(metrics, ResourceLimits.UNLIMITED);
+    }
+
+    public MyPrintScriptInterpreter(PipelineMetrics metrics, ResourceLimits limits) {
+        this.metrics = metrics;
+        this.limits = limits;
+    }
+
     @Override
     public void interpret(InputStream src, String version, InputProvider input, PrintEmitter output, ErrorHandler handler) {
         execute(src, version, output, handler, input);
@@ -20,18 +53,154 @@ public class MyPrintScriptInterpreter implements PrintScriptInterpreter {
 
     @Override
     public void execute(InputStream src, String version, PrintEmitter emitter, ErrorHandler handler, InputProvider provider) {
+        execute(src, version, emitter, handler, provider, limits);
+    }
+
+    /**
+     * Igual que {@link #execute(InputStream, String, PrintEmitter, ErrorHandler, InputProvider)} con los límites
+     * de runLimits en lugar de los del interpreter, para quien atiende requests de terceros con un solo interpreter.
+     */
+    public void execute(InputStream src, String version, PrintEmitter emitter, ErrorHandler handler, InputProvider provider,
+                        ResourceLimits runLimits) {
+        // Sin listener no se mide nada: ni wrappers ni llamadas a nanoTime
+        RunMetrics run = metrics == PipelineMetrics.NOOP ? null : new RunMetrics();
+        InputStream source = run == null ? src : new CountingInputStream(src, run);
+        ResourceBudget budget = newBudget(runLimits);
+        withDeadline(budget, () -> execute(() -> convert(source), version, emitter, handler, provider, run, budget));
+    }
+
+    /**
+     * Igual que {@link #execute(InputStream, String, PrintEmitter, ErrorHandler, InputProvider)} pero leyendo
+     * el fuente desde un archivo mapeado en memoria, decodificado como UTF-8.
+     */
+    public void execute(Path src, String version, PrintEmitter emitter, ErrorHandler handler, InputProvider provider) {
+        RunMetrics run = metrics == PipelineMetrics.NOOP ? null : new RunMetrics();
+        ResourceBudget budget = newBudget(limits);
+        withDeadline(budget, () -> execute(() -> {
+            long start = run == null ? 0 : System.nanoTime();
+            MappedSourceReader reader = MappedSourceReader.open(src);
+            if (run != null) run.read(System.nanoTime() - start, reader.size());
+            return reader;
+        }, version, emitter, handler, provider, run, budget));
+    }
+
+    /**
+     * Lee y valida el fuente una sola vez para ejecutarlo después con
+     * {@link #execute(CompiledProgram, PrintEmitter, ErrorHandler, InputProvider)}.
+     * Un error de sintaxis se lanza acá como RuntimeException, aunque esté después de un println.
+     */
+    public CompiledProgram precompile(InputStream src, String version) {
         try {
-            Reader reader = convert(src);
+            return CompiledProgram.compile(src.readAllBytes(), version);
+        } catch (Exception e) {
+            throw new RuntimeException("Compile error: " + (e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName()), e);
+        }
+    }
+
+    /**
+     * Ejecuta un programa precompilado con la versión con la que se compiló.
+     * No hay IO ni decodificación del fuente: el programa ya está en memoria y se comparte entre ejecuciones.
+     * El lexer y el parser corren igual en cada ejecución (ver {@link CompiledProgram}).
+     */
+    public void execute(CompiledProgram program, PrintEmitter emitter, ErrorHandler handler, InputProvider provider) {
+        RunMetrics run = metrics == PipelineMetrics.NOOP ? null : new RunMetrics();
+        ResourceBudget budget = newBudget(limits);
+        withDeadline(budget, () -> execute(() -> new StringReader(program.program()), program.version(), emitter, handler,
+            provider, run, budget));
+    }
+
+    /**
+     * Ejecuta en un virtual thread y devuelve un handle para cancelar o esperar la ejecución.
+     * Los límites de runLimits reemplazan a los del interpreter para esta ejecución: los de fuente (caracteres,
+     * ';' y let/const leídos) se chequean al leer, los de salida al imprimir y al pedir input, y el de tiempo
+     * lo dispara un timer que interrumpe el hilo. Los errores, incluida la cancelación,
+     * se reportan al handler como en {@link #execute}.
+     */
+    public ExecutionHandle executeAsync(InputStream src, String version, PrintEmitter emitter, ErrorHandler handler,
+                                        InputProvider provider, ResourceLimits runLimits) {
+        // Siempre hay budget: es lo que permite cancelar
+        ResourceBudget budget = new ResourceBudget(runLimits);
+        ExecutionHandle handle = new ExecutionHandle(budget);
+        Thread.ofVirtual().name("printscript-exec").start(() -> handle.run(() -> {
+            RunMetrics run = metrics == PipelineMetrics.NOOP ? null : new RunMetrics();
+            InputStream source = run == null ? src : new CountingInputStream(src, run);
+            execute(() -> convert(source), version, emitter, handler, provider, run, budget);
+        }));
+        return handle;
+    }
+
+    /**
+     * Igual que {@link #executeAsync(InputStream, String, PrintEmitter, ErrorHandler, InputProvider, ResourceLimits)}
+     * con los límites del interpreter. Pensado para {@link AsyncInputProvider}: mientras el script espera un readInput
+     * su virtual thread queda estacionado, así que miles de sesiones pausadas comparten unos pocos carrier threads.
+     */
+    public ExecutionHandle executeAsync(InputStream src, String version, PrintEmitter emitter, ErrorHandler handler,
+                                        InputProvider provider) {
+        return executeAsync(src, version, emitter, handler, provider, limits);
+    }
+
+    // Sin límites no se lleva la cuenta
+    private static ResourceBudget newBudget(ResourceLimits limits) {
+        return limits.isUnlimited() ? null : new ResourceBudget(limits);
+    }
+
+    // Con límite de tiempo la ejecución sincrónica también corre bajo un handle, que programa el vencimiento
+    private static void withDeadline(ResourceBudget budget, Runnable execution) {
+        if (budget == null || !budget.hasDeadline()) {
+            execution.run();
+        } else {
+            new ExecutionHandle(budget).run(execution);
+        }
+    }
+
+    private void execute(SourceOpener opener, String version, PrintEmitter emitter, ErrorHandler handler,
+                         InputProvider provider, RunMetrics run, ResourceBudget budget) {
+        CustomOutput output = new CustomOutput(emitter, run, budget);
+        try (Reader source = opener.open();
+             Reader reader = budget == null && run == null ? source : new LimitedSourceReader(source, budget, run)) {
+            // El Reader se pasa tal cual: el Lexer lo consume a medida que avanza la ejecución
             Runner runner = new Runner(version, reader);
-            CustomOutput output = new CustomOutput(emitter);
-            CustomInput input = new CustomInput(provider);
-            
-            runner.execute(version, output, input);
+            CustomInput input = new CustomInput(provider, run, budget, output);
+
+            Throwable failure = null;
+            try {
+                runner.execute(version, output, input);
+            } catch (Throwable e) {
+                failure = e;
+                throw e;
+            } finally {
+                // Lo que se imprimió antes de un error también tiene que llegar al emitter,
+                // pero si el emitter falla acá no puede tapar el error original
+                try {
+                    output.flush();
+                } catch (RuntimeException e) {
+                    if (failure == null) throw e;
+                    failure.addSuppressed(e);
+                } finally {
+                    output.release();
+                }
+            }
         } catch (OutOfMemoryError e) {
             handler.reportError("Java heap space");
         } catch (Throwable e) {
-            handler.reportError(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            handler.reportError(errorMessage(e, budget));
+        } finally {
+            if (run != null) run.finish(metrics);
         }
     }
-}
 
+    private static String errorMessage(Throwable e, ResourceBudget budget) {
+        if (budget != null) {
+            // Cancelar interrumpe el hilo: lo que lance un InputProvider bloqueado es consecuencia de eso
+            if (budget.isCancelled()) return new ExecutionCancelledException().getMessage();
+            // El core puede envolver la excepción; se reporta el límite exacto que se superó
+            if (budget.violation() != null) return budget.violation().getMessage();
+            if (budget.isExpired()) return new ResourceLimitExceededException("wall time ms", budget.limits().maxWallTimeMillis()).getMessage();
+        }
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    private interface SourceOpener {
+        Reader open() throws IOException;
+    }
+}
@@ -0,0 +1,7 @@
+package implementation.limits;
+
+public class ExecutionCancelledException extends RuntimeException {
+    public ExecutionCancelledException() {
+        super("Execution cancelled");
+    }
+}
@@ -0,0 +1,111 @@
+package implementation.limits;
+
+import implementation.metrics.RunMetrics;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reader que cuenta lo que el Lexer va leyendo: caracteres, statements (';' fuera de strings) y
+ * declaraciones (palabras let y const fuera de strings), y lo cobra al {@link ResourceBudget} y/o
+ * lo suma a las {@link RunMetrics}. Es un escaneo léxico liviano sobre el mismo buffer, sin copiar nada:
+ * cuenta texto leído, no trabajo ejecutado (un programa que falla a mitad igual cuenta lo que el Lexer ya leyó).
+ */
+public class LimitedSourceReader extends FilterReader {
+    private final ResourceBudget budget;
+    private final RunMetrics run;
+    private char quote = 0;
+    private boolean escaped;
+    // Palabra en curso, truncada: alcanza para distinguir "let" y "const" de identificadores más largos
+    private final StringBuilder word = new StringBuilder(5);
+    private boolean inWord;
+
+    public LimitedSourceReader(Reader in, ResourceBudget budget) {
+        this(in, budget, null);
+    }
+
+    /** budget o run pueden ser null, pero no los dos. */
+    public LimitedSourceReader(Reader in, ResourceBudget budget, RunMetrics run) {
+        super(in);
+        this.budget = budget;
+        this.run = run;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int c = super.read();
+        if (c >= 0) {
+            if (budget != null) budget.chargeSource(1);
+            scan((char) c);
+        }
+        return c;
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        int n = super.read(cbuf, off, len);
+        if (n > 0) {
+            if (budget != null) budget.chargeSource(n);
+            long start = run == null ? 0 : System.nanoTime();
+            for (int i = off; i < off + n; i++) scan(cbuf[i]);
+            if (run != null) run.scan(System.nanoTime() - start);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // El Lexer no saltea; si alguien lo hace, se lee para no perder la cuenta
+        char[] buf = new char[(int) Math.min(n, 1024)];
+        long skipped = 0;
+        while (skipped < n) {
+            int r = read(buf, 0, (int) Math.min(buf.length, n - skipped));
+            if (r < 0) break;
+            skipped += r;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void scan(char c) {
+        if (quote != 0) {
+            if (escaped) {
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (c == quote) {
+                quote = 0;
+            }
+            return;
+        }
+        if (Character.isLetterOrDigit(c) || c == '_') {
+            if (!inWord) {
+                inWord = true;
+                word.setLength(0);
+            }
+            if (word.length() < 6) word.append(c);
+            return;
+        }
+        endWord();
+        if (c == '"' || c == '\'') {
+            quote = c;
+        } else if (c == ';') {
+            if (budget != null) budget.chargeSourceStatement();
+            if (run != null) run.statement();
+        }
+    }
+
+    private void endWord() {
+        if (!inWord) return;
+        inWord = false;
+        if ("let".contentEquals(word) || "const".contentEquals(word)) {
+            if (budget != null) budget.chargeSourceDeclaration();
+            if (run != null) run.declaration();
+        }
+    }
+}
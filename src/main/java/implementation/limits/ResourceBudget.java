@@ -0,0 +1,132 @@
+package implementation.limits;
+
+/**
+ * Contabilidad de una sola ejecución contra sus {@link ResourceLimits}. La usa sólo el hilo que ejecuta,
+ * salvo {@link #cancel()} y {@link #timeOut()}, que pueden llamarse desde cualquier hilo.
+ * Guarda el primer límite superado para poder reportarlo aunque el core envuelva la excepción.
+ */
+public class ResourceBudget {
+    private final ResourceLimits limits;
+    // 0 si no hay límite de tiempo; si no, System.nanoTime() en el que vence
+    private final long deadline;
+    private volatile boolean cancelled;
+    private volatile boolean expired;
+    private volatile boolean interruptible;
+    private long sourceChars;
+    private long sourceStatements;
+    private long sourceDeclarations;
+    private long outputChars;
+    private RuntimeException violation;
+
+    public ResourceBudget(ResourceLimits limits) {
+        this.limits = limits;
+        this.deadline = limits.maxWallTimeMillis() > 0
+            ? System.nanoTime() + limits.maxWallTimeMillis() * 1_000_000L
+            : 0;
+    }
+
+    public ResourceLimits limits() {
+        return limits;
+    }
+
+    /** Pide que la ejecución se corte en el próximo chequeo. */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Marca el tiempo como vencido. Puede llamarse desde cualquier hilo: lo llama el timer que
+     * {@link implementation.interpreter.ExecutionHandle} programa para el vencimiento, así no se consulta el reloj en cada chequeo.
+     */
+    public void timeOut() {
+        expired = true;
+    }
+
+    public boolean isExpired() {
+        return expired;
+    }
+
+    /** Lo llama el handle que puede cancelar o vencer esta ejecución desde otro hilo. */
+    public void markInterruptible() {
+        interruptible = true;
+    }
+
+    /** Si algo puede cortar una espera desde afuera: un handle (cancel) o un límite de tiempo. */
+    public boolean isInterruptible() {
+        return interruptible || hasDeadline();
+    }
+
+    /** Si hay límite de tiempo. */
+    public boolean hasDeadline() {
+        return deadline != 0;
+    }
+
+    /** Corta la ejecución si fue cancelada o si venció el tiempo. */
+    public void checkpoint() {
+        if (cancelled) fail(new ExecutionCancelledException());
+        if (expired) fail(new ResourceLimitExceededException("wall time ms", limits.maxWallTimeMillis()));
+    }
+
+    /** Nanos hasta que vence el tiempo; Long.MAX_VALUE si no hay límite. */
+    public long remainingNanos() {
+        return deadline == 0 ? Long.MAX_VALUE : Math.max(0, deadline - System.nanoTime());
+    }
+
+    /**
+     * Marca el tiempo como vencido y devuelve la excepción a lanzar ({@code throw budget.expire()}), o el límite
+     * que se superó antes; para esperas acotadas con {@link #remainingNanos()} que vencieron antes que el timer.
+     */
+    public RuntimeException expire() {
+        expired = true;
+        if (violation == null) violation = new ResourceLimitExceededException("wall time ms", limits.maxWallTimeMillis());
+        return violation;
+    }
+
+    public void chargeSource(long chars) {
+        checkpoint();
+        sourceChars += chars;
+        check("source chars", sourceChars, limits.maxSourceChars());
+    }
+
+    /** Un ';' fuera de strings leído del fuente; ver {@link LimitedSourceReader}. */
+    public void chargeSourceStatement() {
+        check("source statements", ++sourceStatements, limits.maxSourceStatements());
+    }
+
+    /** Un let o const fuera de strings leído del fuente. */
+    public void chargeSourceDeclaration() {
+        check("source declarations", ++sourceDeclarations, limits.maxSourceDeclarations());
+    }
+
+    /** Un mensaje impreso; length se compara con maxStringLength y se suma a maxOutputChars. */
+    public void chargeOutput(int length) {
+        checkpoint();
+        check("string length", length, limits.maxStringLength());
+        outputChars += length;
+        check("output chars", outputChars, limits.maxOutputChars());
+    }
+
+    /** Un valor leído con readInput; length se compara con maxStringLength. */
+    public void chargeInput(int length) {
+        checkpoint();
+        check("string length", length, limits.maxStringLength());
+    }
+
+    /** El primer límite que se superó (o la cancelación), o null. */
+    public RuntimeException violation() {
+        return violation;
+    }
+
+    private void check(String resource, long value, long limit) {
+        if (limit > 0 && value > limit) fail(new ResourceLimitExceededException(resource, limit));
+    }
+
+    private void fail(RuntimeException e) {
+        if (violation == null) violation = e;
+        throw violation;
+    }
+}
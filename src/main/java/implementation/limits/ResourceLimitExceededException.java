@@ -0,0 +1,7 @@
+package implementation.limits;
+
+public class ResourceLimitExceededException extends RuntimeException {
+    public ResourceLimitExceededException(String resource, long limit) {
+        super("Resource limit exceeded: " + resource + " > " + limit);
+    }
+}
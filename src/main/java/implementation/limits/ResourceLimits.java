@@ -0,0 +1,62 @@
+package implementation.limits;
+
+import java.time.Duration;
+
+/**
+ * Límites por ejecución. Cuando se supera alguno, la ejecución se corta con un
+ * {@link ResourceLimitExceededException} antes de que el heap llegue a agotarse.
+ * Los límites se chequean al leer fuente, al imprimir y al pedir input; como PrintScript
+ * no tiene ciclos, entre dos chequeos se ejecuta a lo sumo lo que entra en el buffer del Lexer.
+ * Ninguno cuenta statements ejecutados: el core interpreta directo desde el Parser, sin un punto entre
+ * statements donde el adapter pueda cobrar. Los de fuente cuentan texto leído, y como el Lexer lee por
+ * adelantado, pueden saltar antes de que corran los statements anteriores.
+ * Un valor <= 0 significa sin límite.
+ *
+ * @param maxSourceChars        caracteres del fuente que se pueden leer.
+ * @param maxSourceStatements   terminadores ';' fuera de strings que el Lexer leyó del fuente. Es un conteo textual:
+ *                              se cobra al leer, aunque el programa falle antes de llegar.
+ * @param maxSourceDeclarations palabras let y const fuera de strings leídas del fuente (mismo conteo textual).
+ * @param maxOutputChars  caracteres impresos en total.
+ * @param maxStringLength largo máximo de cada mensaje impreso y de cada valor leído con readInput. Es un límite
+ *                        de salida/entrada: los strings intermedios (concatenaciones que no se imprimen) no se miden,
+ *                        porque el core los arma sin pasar por el adapter.
+ * @param maxWallTimeMillis tiempo máximo de la ejecución, contado desde que se crea (en async, desde el submit).
+ */
+public record ResourceLimits(long maxSourceChars,
+                             long maxSourceStatements,
+                             long maxSourceDeclarations,
+                             long maxOutputChars,
+                             long maxStringLength,
+                             long maxWallTimeMillis) {
+
+    public static final ResourceLimits UNLIMITED = new ResourceLimits(0, 0, 0, 0, 0, 0);
+
+    public boolean isUnlimited() {
+        return maxSourceChars <= 0 && maxSourceStatements <= 0 && maxSourceDeclarations <= 0
+            && maxOutputChars <= 0 && maxStringLength <= 0 && maxWallTimeMillis <= 0;
+    }
+
+    public ResourceLimits withMaxSourceChars(long value) {
+        return new ResourceLimits(value, maxSourceStatements, maxSourceDeclarations, maxOutputChars, maxStringLength, maxWallTimeMillis);
+    }
+
+    public ResourceLimits withMaxSourceStatements(long value) {
+        return new ResourceLimits(maxSourceChars, value, maxSourceDeclarations, maxOutputChars, maxStringLength, maxWallTimeMillis);
+    }
+
+    public ResourceLimits withMaxSourceDeclarations(long value) {
+        return new ResourceLimits(maxSourceChars, maxSourceStatements, value, maxOutputChars, maxStringLength, maxWallTimeMillis);
+    }
+
+    public ResourceLimits withMaxOutputChars(long value) {
+        return new ResourceLimits(maxSourceChars, maxSourceStatements, maxSourceDeclarations, value, maxStringLength, maxWallTimeMillis);
+    }
+
+    public ResourceLimits withMaxStringLength(long value) {
+        return new ResourceLimits(maxSourceChars, maxSourceStatements, maxSourceDeclarations, maxOutputChars, value, maxWallTimeMillis);
+    }
+
+    public ResourceLimits withMaxWallTime(Duration value) {
+        return new ResourceLimits(maxSourceChars, maxSourceStatements, maxSourceDeclarations, maxOutputChars, maxStringLength, value.toMillis());
+    }
+}
@@ -0,0 +1,29 @@
+package implementation.linter;
+
+import main.kotlin.analyzer.AnalyzerConfig;
+
+import java.util.function.Supplier;
+
+/**
+ * Config del linter ya compilada para una versión; se comparte entre llamadas desde el cache de
+ * {@link MyPrintScriptLinter}. El AnalyzerConfig del core envuelve un JsonObject mutable, así que no se
+ * comparte: cada {@link #analyzerConfig()} arma uno nuevo sobre una copia del JSON compilado.
+ */
+public final class CompiledLinterConfig {
+    private final Supplier<AnalyzerConfig> analyzerConfigs;
+    private final int errorBudget;
+
+    CompiledLinterConfig(Supplier<AnalyzerConfig> analyzerConfigs, int errorBudget) {
+        this.analyzerConfigs = analyzerConfigs;
+        this.errorBudget = errorBudget;
+    }
+
+    /** AnalyzerConfig nuevo, para uso exclusivo de un análisis. */
+    public AnalyzerConfig analyzerConfig() {
+        return analyzerConfigs.get();
+    }
+
+    public int errorBudget() {
+        return errorBudget;
+    }
+}
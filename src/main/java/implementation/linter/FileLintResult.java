@@ -0,0 +1,11 @@
+package implementation.linter;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/** Diagnósticos de un archivo en un lint masivo, en el orden en que se reportaron. */
+public record FileLintResult(Path file, List<String> diagnostics) {
+    public boolean isClean() {
+        return diagnostics.isEmpty();
+    }
+}
@@ -0,0 +1,10 @@
+package implementation.linter;
+
+/**
+ * Diagnóstico de una {@link LintSession}.
+ *
+ * @param offset  inicio, en el documento, del statement que lo produjo.
+ * @param message mensaje del analyzer, con la posición (línea y columna) en el documento.
+ */
+public record LintDiagnostic(int offset, String message) {
+}
@@ -0,0 +1,115 @@
+package implementation.linter;
+
+import implementation.util.StatementScanner;
+import main.kotlin.lexer.Position;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sesión de lint incremental para un documento abierto en un editor.
+ * Cada statement se analiza sobre su texto original (sin los espacios del final) y sus diagnósticos se cachean
+ * con ese texto como clave, con posiciones relativas al statement; al reportarlos se corren a la línea y columna
+ * donde empieza el statement en el documento. Así, en cada actualización sólo se lexean y analizan los statements
+ * nuevos o modificados, y uno que sólo se movió reusa su análisis. Dos statements con distinto espaciado no
+ * comparten entrada: sus posiciones internas difieren.
+ * La config queda fija para toda la sesión, por lo que no hace falta incluirla en la clave.
+ *
+ * Todas las reglas que compila {@link LinterConfigAdapter} (formato de identificadores y argumentos de
+ * println/readInput) dependen sólo del statement en el que están; si se agregara una regla que mire
+ * varios statements, habría que invalidar el cache completo al cambiar cualquiera de ellos.
+ * No es thread-safe: una sesión por documento.
+ */
+public class LintSession {
+    private final String version;
+    private final CompiledLinterConfig config;
+    private Map<String, List<Finding>> cache = new HashMap<>();
+    private final StringBuilder text = new StringBuilder();
+
+    LintSession(String version, CompiledLinterConfig config) {
+        this.version = version;
+        this.config = config;
+    }
+
+    /** Reemplaza el documento completo y devuelve sus diagnósticos. */
+    public List<LintDiagnostic> update(String document) {
+        text.setLength(0);
+        text.append(document);
+        return lint();
+    }
+
+    /** Aplica una edición y devuelve los diagnósticos del documento resultante. */
+    public List<LintDiagnostic> edit(int offset, int removedLength, String inserted) {
+        if (offset < 0 || removedLength < 0 || offset + removedLength > text.length()) {
+            throw new IndexOutOfBoundsException("edit [" + offset + ", " + (offset + removedLength) + ") outside document of length " + text.length());
+        }
+        text.replace(offset, offset + removedLength, inserted);
+        return lint();
+    }
+
+    private List<LintDiagnostic> lint() {
+        List<Integer> starts = StatementScanner.scan(text, 0, text.length()).starts();
+        Map<String, List<Finding>> next = new HashMap<>(Math.max(16, starts.size() * 2));
+        List<LintDiagnostic> result = new ArrayList<>();
+        int remaining = config.errorBudget();
+        // Línea y columna (desde 1) de scanned; los starts vienen en orden, así que se avanza una sola vez
+        int line = 1;
+        int column = 1;
+        int scanned = 0;
+        for (int i = 0; i < starts.size() && remaining > 0; i++) {
+            int start = starts.get(i);
+            int end = i + 1 < starts.size() ? starts.get(i + 1) : text.length();
+            while (end > start && Character.isWhitespace(text.charAt(end - 1))) end--;
+            if (end == start) continue;
+            for (; scanned < start; scanned++) {
+                if (text.charAt(scanned) == '\n') {
+                    line++;
+                    column = 1;
+                } else {
+                    column++;
+                }
+            }
+            String statement = text.substring(start, end);
+            List<Finding> findings = next.get(statement);
+            if (findings == null) {
+                findings = cache.get(statement);
+                if (findings == null) findings = analyze(statement);
+                next.put(statement, findings);
+            }
+            for (Finding finding : findings) {
+                result.add(new LintDiagnostic(start, finding.render(line, column)));
+                if (--remaining == 0) break;
+            }
+        }
+        // Sólo sobreviven los statements que siguen en el documento
+        cache = next;
+        return result;
+    }
+
+    private List<Finding> analyze(String statement) {
+        List<Finding> findings = new ArrayList<>();
+        try {
+            MyPrintScriptLinter.analyze(new StringReader(statement), version, config,
+                (message, position) -> findings.add(new Finding(message, position)), Integer.MAX_VALUE);
+        } catch (Exception e) {
+            findings.add(new Finding("MyPrintScriptLinter failed: " + e.getMessage(), null));
+        }
+        return List.copyOf(findings);
+    }
+
+    /** Diagnóstico con la posición relativa al statement; sin posición el mensaje va tal cual. */
+    private record Finding(String message, Position position) {
+
+        /** El mensaje con la posición en el documento, para un statement que empieza en startLine y startColumn. */
+        String render(int startLine, int startColumn) {
+            if (position == null) return message;
+            int line = position.getLine();
+            // Sólo la primera línea del statement está corrida en columnas
+            int column = line == 1 ? startColumn + position.getColumn() - 1 : position.getColumn();
+            return MyPrintScriptLinter.format(message, new Position(startLine + line - 1, column));
+        }
+    }
+}
@@ -1,45 +1,114 @@
 package implementation.linter;
 
-import com.google.gson.annotations.SerializedName;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import implementation.VersionProfile;
 import main.kotlin.analyzer.AnalyzerConfig;
 import main.kotlin.analyzer.IdentifierFormat;
 import main.kotlin.analyzer.IdentifierFormatConfig;
 import main.kotlin.analyzer.PrintlnRestrictionConfig;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+
 /**
  * Adapter de configuración del Linter.
- * Mapea JSON (anidado o plano) -> AnalyzerConfig del core.
+ * Lee el JSON (anidado, plano o con las claves del TCK) en una sola pasada con un JsonReader
+ * y lo compila a un {@link CompiledLinterConfig} inmutable, sin armar árboles intermedios.
  */
 public class LinterConfigAdapter {
 
     // -------- Variante LEGACY (plana) --------
-    // "identifier_format": "snake case" | "camel case" | "SNAKE_CASE" | "CAMEL_CASE"
-    @SerializedName(value = "identifier_format", alternate = {"identifierFormatString"})
-    public String identifierFormatFlat;
+    // "identifier_format" | "identifierFormatString": "snake case" | "camel case" | "SNAKE_CASE" | "CAMEL_CASE"
+    String identifierFormatFlat;
+    // Sólo "identifier_format" habilita NamingFormatCheck en el analyzer
+    String tckIdentifierFormat;
 
-    // true => println solo con literal o identificador (no expresiones)
-    @SerializedName(value = "mandatory-variable-or-literal-in-println")
-    public Boolean mandatoryVarOrLiteralInPrintlnFlat;
+    // "mandatory-variable-or-literal-in-println": true => println solo con literal o identificador
+    Boolean mandatoryVarOrLiteralInPrintlnFlat;
+    // "mandatory_variable_or_literal_in_println" | "mandatory-variable-or-literal-in-println" -> PrintUseCheck
+    Boolean printUseCheck;
+    boolean printUseCheckFromUnderscoreKey;
 
-    // -------- Variante NUEVA (anidada) --------
-    @SerializedName("identifierFormat")
-    public IdentifierFormatDTO identifierFormat;
+    // Claves de ReadInputCheck (sólo v1.1), en orden de precedencia
+    private static final String[] READ_INPUT_KEYS = {
+        "read_input_check_enabled",
+        "read-input-check-enabled",
+        "mandatory-variable-or-literal-in-readInput",
+        "mandatory_variable_or_literal_in_readInput"
+    };
+    final Boolean[] readInputChecks = new Boolean[READ_INPUT_KEYS.length];
 
-    @SerializedName("printlnRestrictions")
-    public PrintlnRestrictionsDTO printlnRestrictions;
+    // -------- Variante NUEVA (anidada) --------
+    IdentifierFormatDTO identifierFormat;
+    PrintlnRestrictionsDTO printlnRestrictions;
 
     // -------- Flags opcionales del core --------
-    @SerializedName(value = "maxErrors", alternate = {"max_errors"})
-    public Integer maxErrors;
+    Integer maxErrors;
+    Boolean enableWarnings;
+    Boolean strictMode;
 
-    @SerializedName(value = "enableWarnings", alternate = {"enable_warnings"})
-    public Boolean enableWarnings;
+    static final String EMPTY_CONFIG_MESSAGE = "Linter config is empty";
+
+    /** Lee la config completa en una sola pasada. Un archivo vacío (o "null") falla con {@link #EMPTY_CONFIG_MESSAGE}. */
+    public static LinterConfigAdapter read(Reader json) throws IOException {
+        LinterConfigAdapter cfg = new LinterConfigAdapter();
+        JsonReader in = new JsonReader(json);
+        in.setLenient(true);
+        try {
+            if (in.peek() == JsonToken.NULL) throw new IllegalArgumentException(EMPTY_CONFIG_MESSAGE);
+        } catch (EOFException e) {
+            throw new IllegalArgumentException(EMPTY_CONFIG_MESSAGE, e);
+        }
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            switch (name) {
+                case "identifier_format" -> {
+                    cfg.identifierFormatFlat = nextString(in);
+                    cfg.tckIdentifierFormat = cfg.identifierFormatFlat;
+                }
+                case "identifierFormatString" -> cfg.identifierFormatFlat = nextString(in);
+                case "mandatory-variable-or-literal-in-println" -> {
+                    cfg.mandatoryVarOrLiteralInPrintlnFlat = nextBoolean(in);
+                    if (!cfg.printUseCheckFromUnderscoreKey) cfg.printUseCheck = cfg.mandatoryVarOrLiteralInPrintlnFlat;
+                }
+                case "mandatory_variable_or_literal_in_println" -> {
+                    cfg.printUseCheck = nextBoolean(in);
+                    cfg.printUseCheckFromUnderscoreKey = true;
+                }
+                case "identifierFormat" -> cfg.identifierFormat = IdentifierFormatDTO.read(in);
+                case "printlnRestrictions" -> cfg.printlnRestrictions = PrintlnRestrictionsDTO.read(in);
+                case "maxErrors", "max_errors" -> cfg.maxErrors = nextInt(in);
+                case "enableWarnings", "enable_warnings" -> cfg.enableWarnings = nextBoolean(in);
+                case "strictMode", "strict_mode" -> cfg.strictMode = nextBoolean(in);
+                default -> {
+                    int idx = indexOf(READ_INPUT_KEYS, name);
+                    if (idx >= 0) {
+                        cfg.readInputChecks[idx] = nextBoolean(in);
+                    } else {
+                        in.skipValue();
+                    }
+                }
+            }
+        }
+        in.endObject();
+        return cfg;
+    }
 
-    @SerializedName(value = "strictMode", alternate = {"strict_mode"})
-    public Boolean strictMode;
+    /**
+     * Compila la config para una versión: AnalyzerConfig del core más el presupuesto de errores.
+     * El adapter no se vuelve a modificar después de read, así que el resultado no cambia entre llamadas.
+     */
+    public CompiledLinterConfig compile(VersionProfile profile) {
+        JsonObject analyzerJson = toAnalyzerJson(profile);
+        return new CompiledLinterConfig(() -> toAnalyzerConfig(analyzerJson.deepCopy()), errorBudget());
+    }
 
     /** Traduce el DTO a tu config real. */
-    public AnalyzerConfig toAnalyzerConfig(com.google.gson.JsonObject jsonConfig) {
+    public AnalyzerConfig toAnalyzerConfig(JsonObject jsonConfig) {
         boolean idEnabled;
         IdentifierFormat idFormat;
 
@@ -75,7 +144,58 @@ public class LinterConfigAdapter {
 
         // Si jsonConfig es null, usar el jsonConfig que necesita tu DefaultAnalyzer
         // para que funcione sin visitors por defecto cuando no hay configuración
-        return new AnalyzerConfig(idCfg, prCfg, maxErr, warnOn, strict, jsonConfig != null ? jsonConfig : new com.google.gson.JsonObject());
+        return new AnalyzerConfig(idCfg, prCfg, maxErr, warnOn, strict, jsonConfig != null ? jsonConfig : new JsonObject());
+    }
+
+    /**
+     * Arma el JSON que espera AnalyzerVisitorsFactory a partir de las claves del TCK.
+     *
+     * TCK format: {"identifier_format": "camel case", "mandatory_variable_or_literal_in_println": true}
+     * Analyzer format: {"NamingFormatCheck": {...}, "PrintUseCheck": {...}, "ReadInputCheck": {...}}
+     */
+    JsonObject toAnalyzerJson(VersionProfile profile) {
+        JsonObject result = new JsonObject();
+
+        // identifier_format -> NamingFormatCheck
+        if (tckIdentifierFormat != null) {
+            String format = tckIdentifierFormat.trim();
+            String namingPattern = format.equalsIgnoreCase("camel case") ? "camelCase" : "snake_case";
+
+            JsonObject namingCheck = new JsonObject();
+            namingCheck.addProperty("namingPatternName", namingPattern);
+            result.add("NamingFormatCheck", namingCheck);
+        }
+
+        // mandatory_variable_or_literal_in_println o mandatory-variable-or-literal-in-println -> PrintUseCheck
+        if (printUseCheck != null) {
+            JsonObject printCheck = new JsonObject();
+            printCheck.addProperty("printlnCheckEnabled", printUseCheck);
+            result.add("PrintUseCheck", printCheck);
+        }
+
+        // read-input-check-enabled y variantes -> ReadInputCheck (solo para v1.1)
+        if (profile.supportsReadInput()) {
+            for (Boolean enabled : readInputChecks) {
+                if (enabled != null) {
+                    JsonObject readCheck = new JsonObject();
+                    readCheck.addProperty("readInputCheckEnabled", enabled);
+                    result.add("ReadInputCheck", readCheck);
+                    break;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Cantidad de diagnósticos a reportar antes de cortar el análisis.
+     * En strictMode alcanza con el primero; maxErrors <= 0 significa sin límite.
+     */
+    public int errorBudget() {
+        if (Boolean.TRUE.equals(strictMode)) return 1;
+        int maxErr = (maxErrors == null) ? 100 : maxErrors;
+        return maxErr > 0 ? maxErr : Integer.MAX_VALUE;
     }
 
     private static IdentifierFormat parseIdentifierFormatOrDefault(String raw, IdentifierFormat def) {
@@ -96,20 +216,85 @@ public class LinterConfigAdapter {
         }
     }
 
+    private static int indexOf(String[] keys, String name) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(name)) return i;
+        }
+        return -1;
+    }
+
+    // Lectores tolerantes, con la misma coerción que hacía Gson ("true" -> true, 5 -> "5", null -> null)
+    private static String nextString(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.BOOLEAN) return Boolean.toString(in.nextBoolean());
+        return in.nextString();
+    }
+
+    private static Boolean nextBoolean(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.STRING) return Boolean.parseBoolean(in.nextString());
+        return in.nextBoolean();
+    }
+
+    private static Integer nextInt(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextInt();
+    }
 
     public static class IdentifierFormatDTO {
-        @SerializedName("enabled")
         public Boolean enabled;
-
-        @SerializedName(value = "format")
         public String format;
+
+        static IdentifierFormatDTO read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            IdentifierFormatDTO dto = new IdentifierFormatDTO();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "enabled" -> dto.enabled = nextBoolean(in);
+                    case "format" -> dto.format = nextString(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return dto;
+        }
     }
 
     public static class PrintlnRestrictionsDTO {
-        @SerializedName("enabled")
         public Boolean enabled;
-
-        @SerializedName("allowOnlyIdentifiersAndLiterals")
         public Boolean allowOnlyIdentifiersAndLiterals;
+
+        static PrintlnRestrictionsDTO read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            PrintlnRestrictionsDTO dto = new PrintlnRestrictionsDTO();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "enabled" -> dto.enabled = nextBoolean(in);
+                    case "allowOnlyIdentifiersAndLiterals" -> dto.allowOnlyIdentifiersAndLiterals = nextBoolean(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return dto;
+        }
     }
 }
@@ -1,146 +1,247 @@
 package implementation.linter;
 
-import com.google.gson.Gson;
+import implementation.VersionProfile;
+import implementation.cache.ResultCache;
+import implementation.util.Hashing;
+import implementation.util.LruCache;
+import implementation.util.MappedSourceReader;
+import implementation.util.SourceTree;
 import interpreter.ErrorHandler;
 import interpreter.PrintScriptLinter;
 import main.kotlin.analyzer.AnalysisResult;
 import main.kotlin.analyzer.AnalyzerConfig;
 import main.kotlin.analyzer.DefaultAnalyzer;
-import main.kotlin.lexer.Lexer;
-import main.kotlin.lexer.TokenFactory;
+import main.kotlin.lexer.Position;
 import org.Parser;
-import org.ParserFactory;
 import org.example.astnode.ASTNode;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import static implementation.util.InputStreamToStringReader.convert;
 
+/**
+ * Thread-safe: las configs compiladas (inmutables) se comparten a través del cache y cada lint arma su
+ * propio parser y analyzer. Las sesiones de {@link #openSession} no lo son: una por documento.
+ */
 public class MyPrintScriptLinter implements PrintScriptLinter {
-    
-    private final Gson gson = new Gson();
+
+    public static final int DEFAULT_CONFIG_CACHE_CAPACITY = 64;
+
+    // Compartido entre todas las instancias creadas sin cache propio (la factory tiene una sola, pero hay más con new)
+    private static final LruCache<ConfigKey, CompiledLinterConfig> SHARED_CONFIG_CACHE =
+        new LruCache<>(DEFAULT_CONFIG_CACHE_CAPACITY);
+
+    private final LruCache<ConfigKey, CompiledLinterConfig> configCache;
+    private final ResultCache results;
+
+    public MyPrintScriptLinter() {
+        this(SHARED_CONFIG_CACHE);
+    }
+
+    MyPrintScriptLinter(LruCache<ConfigKey, CompiledLinterConfig> configCache) {
+        this(configCache, null);
+    }
+
+    /**
+     * Con results != null los diagnósticos de cada archivo se guardan por contenido y se reproducen
+     * en el mismo orden en un hit. A cambio el fuente se lee entero antes de analizarlo.
+     */
+    public MyPrintScriptLinter(ResultCache results) {
+        this(SHARED_CONFIG_CACHE, results);
+    }
+
+    MyPrintScriptLinter(LruCache<ConfigKey, CompiledLinterConfig> configCache, ResultCache results) {
+        this.configCache = configCache;
+        this.results = results;
+    }
 
     @Override
     public void lint(InputStream src, String version, InputStream config, ErrorHandler handler) {
-        try {
-            // 1. Leer código fuente
-            Reader reader = convert(src);
-            String code = readAll(reader);
-
-            // 2. Crear Lexer
-            TokenFactory tokenFactory = new TokenFactory();
-            var tokenResolver = version.startsWith("1.1") 
-                ? tokenFactory.createLexerV11() 
-                : tokenFactory.createLexerV10();
-            Lexer lexer = new Lexer(tokenResolver, new StringReader(code));
-
-            // 3. Crear Parser
-            Parser parser = version.startsWith("1.1")
-                ? ParserFactory.INSTANCE.createParserV11(lexer)
-                : ParserFactory.INSTANCE.createParserV10(lexer);
-
-            // 4. Obtener todos los AST nodes
-            List<ASTNode> ast = new ArrayList<>();
-            while (parser.hasNext()) {
-                ast.add(parser.next());
-            }
+        if (results != null) {
+            // Se decodifica igual que sin cache: convert usa el charset por defecto
+            lintCached(src::readAllBytes, Charset.defaultCharset(), version, config, handler);
+            return;
+        }
+        lint(() -> convert(src), version, config, handler);
+    }
+
+    /**
+     * Igual que {@link #lint(InputStream, String, InputStream, ErrorHandler)} pero leyendo el fuente
+     * desde un archivo, decodificado como UTF-8 (mapeado en memoria sólo si es grande, ver
+     * {@link MappedSourceReader#openSource}).
+     */
+    public void lint(Path src, String version, InputStream config, ErrorHandler handler) {
+        if (results != null) {
+            lintCached(() -> Files.readAllBytes(src), StandardCharsets.UTF_8, version, config, handler);
+            return;
+        }
+        lint(() -> MappedSourceReader.openSource(src), version, config, handler);
+    }
 
-            // 5. Leer configuración del linter
-            Reader cfgReader = new InputStreamReader(config, StandardCharsets.UTF_8);
-            com.google.gson.JsonObject jsonConfig = gson.fromJson(cfgReader, com.google.gson.JsonObject.class);
-            
-            // Transformar JSON del TCK al formato que espera AnalyzerVisitorsFactory
-            com.google.gson.JsonObject transformedJson = transformTckJsonToAnalyzerJson(jsonConfig, version);
-            
-            LinterConfigAdapter cfgAdapter = gson.fromJson(jsonConfig, LinterConfigAdapter.class);
-            AnalyzerConfig analyzerCfg = cfgAdapter.toAnalyzerConfig(transformedJson);
-
-            // 6. Crear analyzer y analizar
-            DefaultAnalyzer analyzer = new DefaultAnalyzer(version, parser);
-            AnalysisResult result = analyzer.analyze(ast, analyzerCfg, version);
-
-            // 7. Reportar diagnósticos
-            result.getDiagnostics().forEach(d ->
-                handler.reportError(d.getMessage() + " at " + d.getPosition())
-            );
+    private void lint(SourceOpener opener, String version, InputStream config, ErrorHandler handler) {
+        try (Reader reader = opener.open()) {
+            // 1. Compilar (o recuperar del cache) la configuración del linter
+            CompiledLinterConfig compiled = compileConfig(config.readAllBytes(), version);
+
+            // 2. Analizar directamente sobre el Reader (sin copiar el fuente)
+            analyze(reader, version, compiled, handler, compiled.errorBudget());
         } catch (Exception e) {
             handler.reportError("MyPrintScriptLinter failed: " + e.getMessage());
         }
     }
 
-    private String readAll(Reader reader) {
-        try (java.io.BufferedReader br = new java.io.BufferedReader(reader)) {
-            StringBuilder sb = new StringBuilder();
-            String line;
-            while ((line = br.readLine()) != null) {
-                sb.append(line).append('\n');
-            }
-            return sb.toString();
+    /** charset es con el que se decodifica el fuente; entra en la clave porque los mismos bytes pueden dar otro texto. */
+    private void lintCached(SourceBytes src, Charset charset, String version, InputStream config, ErrorHandler handler) {
+        byte[] source;
+        byte[] configBytes;
+        try {
+            source = src.read();
+            configBytes = config.readAllBytes();
         } catch (Exception e) {
-            throw new RuntimeException(e);
+            handler.reportError("MyPrintScriptLinter failed: " + e.getMessage());
+            return;
         }
+        byte[] encoded = results.get(results.key("lint/" + charset.name(), version, configBytes, source), () -> {
+            List<String> diagnostics = new ArrayList<>();
+            lint(() -> new StringReader(new String(source, charset)), version,
+                new ByteArrayInputStream(configBytes), diagnostics::add);
+            return encode(diagnostics);
+        });
+        decode(encoded).forEach(handler::reportError);
     }
 
-    /**
-     * Transforma el JSON del TCK al formato que espera AnalyzerVisitorsFactory.
-     * 
-     * TCK format: {"identifier_format": "camel case", "mandatory_variable_or_literal_in_println": true}
-     * Analyzer format: {"NamingFormatCheck": {...}, "UnusedVariableCheck": {...}, ...}
-     */
-    private com.google.gson.JsonObject transformTckJsonToAnalyzerJson(com.google.gson.JsonObject tckJson, String version) {
-        com.google.gson.JsonObject result = new com.google.gson.JsonObject();
-        
-        // identifier_format -> NamingFormatCheck
-        if (tckJson.has("identifier_format")) {
-            String format = tckJson.get("identifier_format").getAsString().trim();
-            String namingPattern = format.equalsIgnoreCase("camel case") ? "camelCase" : "snake_case";
-            
-            com.google.gson.JsonObject namingCheck = new com.google.gson.JsonObject();
-            namingCheck.addProperty("namingPatternName", namingPattern);
-            result.add("NamingFormatCheck", namingCheck);
+    // Cada mensaje va como largo + bytes UTF-8: pueden contener saltos de línea
+    private static byte[] encode(List<String> diagnostics) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(diagnostics.size());
+            for (String d : diagnostics) {
+                byte[] utf8 = d.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(utf8.length);
+                out.write(utf8);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        
-        // mandatory_variable_or_literal_in_println o mandatory-variable-or-literal-in-println -> PrintUseCheck
-        if (tckJson.has("mandatory_variable_or_literal_in_println") || tckJson.has("mandatory-variable-or-literal-in-println")) {
-            boolean enabled = tckJson.has("mandatory_variable_or_literal_in_println")
-                ? tckJson.get("mandatory_variable_or_literal_in_println").getAsBoolean()
-                : tckJson.get("mandatory-variable-or-literal-in-println").getAsBoolean();
-            
-            com.google.gson.JsonObject printCheck = new com.google.gson.JsonObject();
-            printCheck.addProperty("printlnCheckEnabled", enabled);
-            result.add("PrintUseCheck", printCheck);
+        return bytes.toByteArray();
+    }
+
+    private static List<String> decode(byte[] encoded) {
+        ByteBuffer buffer = ByteBuffer.wrap(encoded);
+        int count = buffer.getInt();
+        List<String> diagnostics = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] utf8 = new byte[buffer.getInt()];
+            buffer.get(utf8);
+            diagnostics.add(new String(utf8, StandardCharsets.UTF_8));
         }
-        
-        // readInputCheckEnabled, read-input-check-enabled o mandatory-variable-or-literal-in-readInput -> ReadInputCheck (solo para v1.1)
-        if (version.startsWith("1.1") && 
-            (tckJson.has("read_input_check_enabled") || 
-             tckJson.has("read-input-check-enabled") ||
-             tckJson.has("mandatory-variable-or-literal-in-readInput") ||
-             tckJson.has("mandatory_variable_or_literal_in_readInput"))) {
-            
-            boolean enabled = false;
-            if (tckJson.has("read_input_check_enabled")) {
-                enabled = tckJson.get("read_input_check_enabled").getAsBoolean();
-            } else if (tckJson.has("read-input-check-enabled")) {
-                enabled = tckJson.get("read-input-check-enabled").getAsBoolean();
-            } else if (tckJson.has("mandatory-variable-or-literal-in-readInput")) {
-                enabled = tckJson.get("mandatory-variable-or-literal-in-readInput").getAsBoolean();
-            } else if (tckJson.has("mandatory_variable_or_literal_in_readInput")) {
-                enabled = tckJson.get("mandatory_variable_or_literal_in_readInput").getAsBoolean();
+        return diagnostics;
+    }
+
+    /**
+     * Analiza cada nodo a medida que el parser lo produce y reporta en el momento.
+     * Las reglas que se configuran (NamingFormatCheck, PrintUseCheck, ReadInputCheck)
+     * miran un statement a la vez, así que no hace falta retener el AST completo.
+     * Se corta apenas se agota el presupuesto de errores (maxErrors, o 1 en strictMode):
+     * el resto del fuente ni se lexea ni se parsea.
+     *
+     * @return el presupuesto que quedó sin usar.
+     */
+    static int analyze(Reader reader, String version, CompiledLinterConfig compiled, ErrorHandler handler, int budget) {
+        return analyze(reader, version, compiled, (message, position) -> handler.reportError(format(message, position)), budget);
+    }
+
+    /** Igual, pero entrega el mensaje y la posición por separado (la usa {@link LintSession} para reubicarla). */
+    static int analyze(Reader reader, String version, CompiledLinterConfig compiled, DiagnosticSink sink, int budget) {
+        Parser parser = VersionProfile.of(version).parser(reader);
+        AnalyzerConfig analyzerCfg = compiled.analyzerConfig();
+        DefaultAnalyzer analyzer = new DefaultAnalyzer(version, parser);
+        int remaining = budget;
+        while (remaining > 0 && parser.hasNext()) {
+            ASTNode node = parser.next();
+            AnalysisResult result = analyzer.analyze(List.of(node), analyzerCfg, version);
+            for (var d : result.getDiagnostics()) {
+                sink.report(d.getMessage(), d.getPosition());
+                if (--remaining == 0) break;
             }
-            
-            com.google.gson.JsonObject readCheck = new com.google.gson.JsonObject();
-            readCheck.addProperty("readInputCheckEnabled", enabled);
-            result.add("ReadInputCheck", readCheck);
         }
-        
-        return result;
+        return remaining;
+    }
+
+    /**
+     * Abre una sesión de lint incremental; la config se compila (o sale del cache) una sola vez.
+     */
+    public LintSession openSession(String version, InputStream config) throws IOException {
+        return new LintSession(version, compileConfig(config.readAllBytes(), version));
+    }
+
+    /**
+     * Lintea todos los .ps bajo root en paralelo sobre el ForkJoinPool común.
+     * Los resultados vienen ordenados por path.
+     */
+    public List<FileLintResult> lintTree(Path root, String version, Path config) throws IOException {
+        return lintTree(root, version, config, ForkJoinPool.commonPool());
+    }
+
+    public List<FileLintResult> lintTree(Path root, String version, Path config, ForkJoinPool pool) throws IOException {
+        return lintTree(root, version, Files.readAllBytes(config), pool);
     }
-}
 
+    /** Un error al recorrer root sale como IOException; los de cada archivo van como diagnóstico de ese archivo. */
+    public List<FileLintResult> lintTree(Path root, String version, byte[] configBytes, ForkJoinPool pool) throws IOException {
+        return SourceTree.processAll(root, pool, file -> {
+            List<String> diagnostics = new ArrayList<>();
+            lint(file, version, new ByteArrayInputStream(configBytes), diagnostics::add);
+            return new FileLintResult(file, List.copyOf(diagnostics));
+        });
+    }
+
+    private CompiledLinterConfig compileConfig(byte[] configBytes, String version) {
+        VersionProfile profile = VersionProfile.of(version);
+        return configCache.get(new ConfigKey(Hashing.sha256(configBytes), profile.version()), key -> {
+            Reader cfgReader = new InputStreamReader(new ByteArrayInputStream(configBytes), StandardCharsets.UTF_8);
+            try {
+                return LinterConfigAdapter.read(cfgReader).compile(profile);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /** El texto con el que se reporta un diagnóstico. */
+    static String format(String message, Position position) {
+        return message + " at " + position;
+    }
+
+    interface DiagnosticSink {
+        void report(String message, Position position);
+    }
+
+    private interface SourceOpener {
+        Reader open() throws IOException;
+    }
+
+    private interface SourceBytes {
+        byte[] read() throws IOException;
+    }
+
+    /** Clave del cache de configs: hash del contenido más la versión. */
+    record ConfigKey(String configHash, String version) {
+    }
+}
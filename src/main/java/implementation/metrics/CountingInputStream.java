@@ -0,0 +1,31 @@
+package implementation.metrics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/** Cuenta los bytes leídos del fuente y el tiempo pasado leyéndolos. */
+public class CountingInputStream extends FilterInputStream {
+    private final RunMetrics metrics;
+
+    public CountingInputStream(InputStream in, RunMetrics metrics) {
+        super(in);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public int read() throws IOException {
+        long start = System.nanoTime();
+        int b = super.read();
+        metrics.read(System.nanoTime() - start, b < 0 ? 0 : 1);
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        long start = System.nanoTime();
+        int n = super.read(b, off, len);
+        metrics.read(System.nanoTime() - start, n);
+        return n;
+    }
+}
@@ -0,0 +1,85 @@
+package implementation.metrics;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma lock-free con buckets en potencias de 2: el bucket i cuenta valores en [2^(i-1), 2^i) y el 0 cuenta ceros.
+ * Alcanza para ver la forma de la distribución sin guardar cada muestra.
+ */
+public class Histogram {
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    public void record(long value) {
+        long v = Math.max(0, value);
+        buckets.incrementAndGet(64 - Long.numberOfLeadingZeros(v));
+        count.increment();
+        sum.add(v);
+        min.accumulate(v);
+        max.accumulate(v);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long sum() {
+        return sum.sum();
+    }
+
+    public long min() {
+        return count() == 0 ? 0 : min.get();
+    }
+
+    public long max() {
+        return count() == 0 ? 0 : max.get();
+    }
+
+    public double mean() {
+        long c = count();
+        return c == 0 ? 0 : (double) sum() / c;
+    }
+
+    /** Cota superior aproximada (límite del bucket) del percentil pedido, entre 0 y 1. */
+    public long percentile(double p) {
+        long total = count();
+        if (total == 0) return 0;
+        long target = (long) Math.ceil(p * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= target) return i == 0 ? 0 : Math.min(max(), (1L << i) - 1);
+        }
+        return max();
+    }
+
+    String toText() {
+        return String.format("count=%d sum=%d min=%d mean=%.1f p50<=%d p99<=%d max=%d",
+            count(), sum(), min(), mean(), percentile(0.5), percentile(0.99), max());
+    }
+
+    JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        json.addProperty("count", count());
+        json.addProperty("sum", sum());
+        json.addProperty("min", min());
+        json.addProperty("mean", mean());
+        json.addProperty("p50", percentile(0.5));
+        json.addProperty("p99", percentile(0.99));
+        json.addProperty("max", max());
+        JsonArray counts = new JsonArray();
+        for (int i = 0; i < BUCKETS; i++) counts.add(buckets.get(i));
+        json.add("log2Buckets", counts);
+        return json;
+    }
+}
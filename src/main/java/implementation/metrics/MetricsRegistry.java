@@ -0,0 +1,58 @@
+package implementation.metrics;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Implementación incluida de {@link PipelineMetrics}: un histograma por fase (en nanos)
+ * y uno por contador (valor por ejecución). Thread-safe; se puede compartir entre ejecuciones.
+ */
+public class MetricsRegistry implements PipelineMetrics {
+    private final Map<Phase, Histogram> phases = new EnumMap<>(Phase.class);
+    private final Map<Counter, Histogram> counters = new EnumMap<>(Counter.class);
+
+    public MetricsRegistry() {
+        // Se llenan acá y después sólo se leen, así que los EnumMap no necesitan sincronización
+        for (Phase phase : Phase.values()) phases.put(phase, new Histogram());
+        for (Counter counter : Counter.values()) counters.put(counter, new Histogram());
+    }
+
+    @Override
+    public void phase(Phase phase, long nanos) {
+        phases.get(phase).record(nanos);
+    }
+
+    @Override
+    public void count(Counter counter, long value) {
+        counters.get(counter).record(value);
+    }
+
+    public Histogram phase(Phase phase) {
+        return phases.get(phase);
+    }
+
+    public Histogram counter(Counter counter) {
+        return counters.get(counter);
+    }
+
+    public String toText() {
+        StringBuilder sb = new StringBuilder();
+        phases.forEach((phase, h) -> sb.append("phase.").append(phase.name().toLowerCase()).append("_ns ").append(h.toText()).append('\n'));
+        counters.forEach((counter, h) -> sb.append("count.").append(counter.name().toLowerCase()).append(' ').append(h.toText()).append('\n'));
+        return sb.toString();
+    }
+
+    public String toJson() {
+        JsonObject phasesJson = new JsonObject();
+        phases.forEach((phase, h) -> phasesJson.add(phase.name().toLowerCase(), h.toJson()));
+        JsonObject countersJson = new JsonObject();
+        counters.forEach((counter, h) -> countersJson.add(counter.name().toLowerCase(), h.toJson()));
+        JsonObject json = new JsonObject();
+        json.add("phasesNanos", phasesJson);
+        json.add("counters", countersJson);
+        return new GsonBuilder().setPrettyPrinting().create().toJson(json);
+    }
+}
@@ -0,0 +1,51 @@
+package implementation.metrics;
+
+/**
+ * Listener de métricas del pipeline. Se llama una vez por fase y por contador al terminar cada ejecución.
+ * Las implementaciones tienen que ser thread-safe si la misma instancia se comparte entre ejecuciones concurrentes.
+ */
+public interface PipelineMetrics {
+    PipelineMetrics NOOP = new PipelineMetrics() {
+    };
+
+    /** Tiempo total (en nanos) que la ejecución pasó en una fase. */
+    default void phase(Phase phase, long nanos) {
+    }
+
+    /** Valor de un contador para la ejecución que terminó. */
+    default void count(Counter counter, long value) {
+    }
+
+    enum Phase {
+        /** Lectura del fuente: el InputStream (I/O) o la apertura del archivo mapeado. */
+        READ,
+        /**
+         * Escaneo del fuente a medida que el Lexer lo pide: la cuenta de ';' y let/const que hace
+         * {@link implementation.limits.LimitedSourceReader}. Sólo las lecturas por bloque; las de a un
+         * carácter no se miden porque el nanoTime costaría más que el escaneo.
+         */
+        SCAN,
+        /**
+         * Lexer, parser e Interpreter del core juntos, sin contar lectura, escaneo, prints ni inputs.
+         * El Lexer es lazy y el core lo intercala con el parser y el Interpreter sin exponer un punto
+         * entre fases, así que este tiempo no se puede separar más.
+         */
+        LEX_PARSE_INTERPRET,
+        /** Llamadas al PrintEmitter. */
+        EMIT,
+        /** Espera en el InputProvider. */
+        INPUT,
+        /** La ejecución completa. */
+        TOTAL
+    }
+
+    enum Counter {
+        BYTES_READ,
+        PRINTS,
+        INPUTS,
+        /** Terminadores ';' fuera de strings que leyó el Lexer (escaneo textual, no statements ejecutados). */
+        STATEMENTS,
+        /** Palabras let y const fuera de strings que leyó el Lexer. */
+        DECLARATIONS
+    }
+}
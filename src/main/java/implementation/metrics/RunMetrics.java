@@ -0,0 +1,69 @@
+package implementation.metrics;
+
+import implementation.metrics.PipelineMetrics.Counter;
+import implementation.metrics.PipelineMetrics.Phase;
+
+/**
+ * Acumulador de una sola ejecución; lo usa sólo el hilo que ejecuta, así que no sincroniza.
+ * Al terminar vuelca los totales en el {@link PipelineMetrics} configurado.
+ */
+public class RunMetrics {
+    private final long start = System.nanoTime();
+    private long readNanos;
+    private long scanNanos;
+    private long emitNanos;
+    private long inputNanos;
+    private long bytesRead;
+    private long prints;
+    private long inputs;
+    private long statements;
+    private long declarations;
+
+    public void read(long nanos, long bytes) {
+        readNanos += nanos;
+        if (bytes > 0) bytesRead += bytes;
+    }
+
+    public void scan(long nanos) {
+        scanNanos += nanos;
+    }
+
+    public void emit(long nanos) {
+        emit(nanos, 1);
+    }
+
+    public void emit(long nanos, int messages) {
+        emitNanos += nanos;
+        prints += messages;
+    }
+
+    public void input(long nanos) {
+        inputNanos += nanos;
+        inputs++;
+    }
+
+    /** Un ';' fuera de strings leído del fuente (ver {@link implementation.limits.LimitedSourceReader}). */
+    public void statement() {
+        statements++;
+    }
+
+    /** Un let o const fuera de strings leído del fuente. */
+    public void declaration() {
+        declarations++;
+    }
+
+    public void finish(PipelineMetrics metrics) {
+        long total = System.nanoTime() - start;
+        metrics.phase(Phase.READ, readNanos);
+        metrics.phase(Phase.SCAN, scanNanos);
+        metrics.phase(Phase.EMIT, emitNanos);
+        metrics.phase(Phase.INPUT, inputNanos);
+        metrics.phase(Phase.LEX_PARSE_INTERPRET, Math.max(0, total - readNanos - scanNanos - emitNanos - inputNanos));
+        metrics.phase(Phase.TOTAL, total);
+        metrics.count(Counter.BYTES_READ, bytesRead);
+        metrics.count(Counter.PRINTS, prints);
+        metrics.count(Counter.INPUTS, inputs);
+        metrics.count(Counter.STATEMENTS, statements);
+        metrics.count(Counter.DECLARATIONS, declarations);
+    }
+}
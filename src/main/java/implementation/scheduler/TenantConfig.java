@@ -0,0 +1,18 @@
+package implementation.scheduler;
+
+/**
+ * Parámetros de un tenant en el {@link TenantScheduler}.
+ *
+ * @param weight        parte relativa de las ejecuciones cuando hay competencia (2 recibe el doble que 1).
+ * @param maxConcurrent cuántos jobs del tenant pueden correr a la vez.
+ * @param maxQueued     cuántos jobs puede tener esperando; el siguiente se rechaza en el momento.
+ */
+public record TenantConfig(int weight, int maxConcurrent, int maxQueued) {
+    public static final TenantConfig DEFAULT = new TenantConfig(1, 4, 1000);
+
+    public TenantConfig {
+        if (weight <= 0) throw new IllegalArgumentException("weight must be positive: " + weight);
+        if (maxConcurrent <= 0) throw new IllegalArgumentException("maxConcurrent must be positive: " + maxConcurrent);
+        if (maxQueued < 0) throw new IllegalArgumentException("maxQueued must not be negative: " + maxQueued);
+    }
+}
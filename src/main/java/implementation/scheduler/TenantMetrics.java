@@ -0,0 +1,53 @@
+package implementation.scheduler;
+
+import implementation.metrics.Histogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** Métricas de un tenant: tiempo en cola y de ejecución (en nanos) y contadores de jobs. Thread-safe. */
+public class TenantMetrics {
+    private final Histogram queueNanos = new Histogram();
+    private final Histogram runNanos = new Histogram();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    void onSubmitted() {
+        submitted.increment();
+    }
+
+    void onRejected() {
+        rejected.increment();
+    }
+
+    void onCompleted(long queuedNanos, long ranNanos, boolean succeeded) {
+        queueNanos.record(queuedNanos);
+        runNanos.record(ranNanos);
+        if (!succeeded) failed.increment();
+    }
+
+    public Histogram queueNanos() {
+        return queueNanos;
+    }
+
+    public Histogram runNanos() {
+        return runNanos;
+    }
+
+    public long submitted() {
+        return submitted.sum();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    /** Jobs terminados que reportaron al menos un error (o tiraron excepción). */
+    public long failed() {
+        return failed.sum();
+    }
+
+    public long completed() {
+        return runNanos.count();
+    }
+}
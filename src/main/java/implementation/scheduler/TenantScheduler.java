@@ -0,0 +1,271 @@
+package implementation.scheduler;
+
+import implementation.PrintScriptFactory;
+import implementation.batch.BatchRunner;
+import implementation.batch.ExecutionJob;
+import implementation.batch.JobResult;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Reparte ejecuciones de muchos tenants sobre un mismo pool sin que uno con jobs grandes deje sin turno al resto.
+ * Cada tenant tiene su cola; el despacho es weighted fair (stride scheduling): cada job despachado adelanta el
+ * "pase" del tenant en 1/peso y siempre se elige el tenant con cola, con lugar bajo su maxConcurrent y con el
+ * menor pase. Un tenant que estuvo inactivo arranca desde el pase actual, así no acumula crédito para ráfagas.
+ * Las colas están acotadas: si un tenant supera maxQueued el submit falla en el momento con
+ * RejectedExecutionException, en vez de sumar latencia para todos.
+ * Los tenants que no se registraron con {@link #register} se olvidan cuando quedan sin jobs en cola ni corriendo,
+ * así una lista abierta de nombres no hace crecer el mapa. Sus métricas se guardan aparte, en un mapa LRU de
+ * {@value #IDLE_METRICS} entradas, y las retoma el tenant si vuelve a mandar jobs.
+ * Los futures se completan siempre fuera del lock, así los callbacks pueden volver a llamar al scheduler.
+ */
+public class TenantScheduler {
+    private static final double STRIDE = 1.0;
+    static final int IDLE_METRICS = 1024;
+
+    private final BatchRunner runner;
+    private final Executor executor;
+    // El executor que creó el scheduler y que cierra shutdown; null si vino de afuera
+    private final ExecutorService ownedExecutor;
+    private final int maxRunning;
+    private final TenantConfig defaultConfig;
+    private final Map<String, Tenant> tenants = new LinkedHashMap<>();
+    // Métricas de tenants olvidados, en orden de acceso; se descartan las de los que hace más tiempo no aparecen
+    private final Map<String, TenantMetrics> idleMetrics = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, TenantMetrics> eldest) {
+            return size() > IDLE_METRICS;
+        }
+    };
+    private int running = 0;
+    private double virtualTime = 0;
+    private boolean shutdown = false;
+
+    /**
+     * Jobs sobre virtual threads, con a lo sumo maxRunning corriendo a la vez entre todos los tenants.
+     * El executor es del scheduler: {@link #shutdown} lo cierra.
+     */
+    public TenantScheduler(PrintScriptFactory factory, int maxRunning) {
+        this(factory, Executors.newVirtualThreadPerTaskExecutor(), true, maxRunning, TenantConfig.DEFAULT);
+    }
+
+    /**
+     * defaultConfig se aplica a los tenants que no se registraron con {@link #register}.
+     * El executor sigue siendo de quien lo pasó: {@link #shutdown} no lo cierra.
+     */
+    public TenantScheduler(PrintScriptFactory factory, Executor executor, int maxRunning, TenantConfig defaultConfig) {
+        this(factory, executor, false, maxRunning, defaultConfig);
+    }
+
+    private TenantScheduler(PrintScriptFactory factory, Executor executor, boolean owned, int maxRunning,
+                            TenantConfig defaultConfig) {
+        if (maxRunning <= 0) throw new IllegalArgumentException("maxRunning must be positive: " + maxRunning);
+        this.runner = new BatchRunner(factory);
+        this.executor = executor;
+        this.ownedExecutor = owned ? (ExecutorService) executor : null;
+        this.maxRunning = maxRunning;
+        this.defaultConfig = defaultConfig;
+    }
+
+    /** Registra o actualiza la config de un tenant; los jobs que ya están en cola no se tocan. */
+    public void register(String tenant, TenantConfig config) {
+        List<Start> starts;
+        synchronized (this) {
+            Tenant existing = tenants.get(tenant);
+            if (existing == null) {
+                existing = new Tenant(tenant, config, takeMetrics(tenant));
+                tenants.put(tenant, existing);
+            } else {
+                existing.config = config;
+            }
+            existing.registered = true;
+            starts = dispatch();
+        }
+        launch(starts);
+    }
+
+    /**
+     * Encola el job del tenant. El future se completa con el resultado, o excepcionalmente con
+     * RejectedExecutionException si la cola del tenant está llena o el scheduler está apagado.
+     */
+    public CompletableFuture<JobResult> submit(String tenant, ExecutionJob job) {
+        CompletableFuture<JobResult> future = new CompletableFuture<>();
+        RejectedExecutionException rejection = null;
+        List<Start> starts = List.of();
+        synchronized (this) {
+            Tenant t = tenants.computeIfAbsent(tenant, name -> new Tenant(name, defaultConfig, takeMetrics(name)));
+            t.metrics.onSubmitted();
+            if (shutdown) {
+                t.metrics.onRejected();
+                rejection = new RejectedExecutionException("Scheduler is shut down");
+            } else if (t.queue.size() >= t.config.maxQueued()) {
+                t.metrics.onRejected();
+                rejection = new RejectedExecutionException("Tenant " + tenant + " has " + t.queue.size() + " queued jobs");
+            } else {
+                if (t.queue.isEmpty() && t.running == 0) t.pass = Math.max(t.pass, virtualTime);
+                t.queue.add(new Pending(job, future, System.nanoTime()));
+                starts = dispatch();
+            }
+            forgetIfIdle(t);
+        }
+        if (rejection != null) {
+            future.completeExceptionally(rejection);
+        } else {
+            launch(starts);
+        }
+        return future;
+    }
+
+    /**
+     * Deja de aceptar jobs: los submits siguientes y los jobs que estaban en cola fallan con
+     * RejectedExecutionException. Los que ya están corriendo terminan. Si el executor lo creó el scheduler, se cierra.
+     */
+    public void shutdown() {
+        List<Pending> dropped = new ArrayList<>();
+        synchronized (this) {
+            shutdown = true;
+            Iterator<Map.Entry<String, Tenant>> it = tenants.entrySet().iterator();
+            while (it.hasNext()) {
+                Tenant t = it.next().getValue();
+                for (int i = 0; i < t.queue.size(); i++) t.metrics.onRejected();
+                dropped.addAll(t.queue);
+                t.queue.clear();
+                if (!t.registered && t.running == 0) {
+                    it.remove();
+                    idleMetrics.put(t.name, t.metrics);
+                }
+            }
+        }
+        for (Pending pending : dropped) {
+            pending.future().completeExceptionally(new RejectedExecutionException("Scheduler is shut down"));
+        }
+        // shutdown no cancela lo ya enviado: los jobs que corren terminan
+        if (ownedExecutor != null) ownedExecutor.shutdown();
+    }
+
+    /**
+     * Métricas del tenant, o null si nunca mandó jobs ni se registró. Las de un tenant no registrado que quedó
+     * inactivo siguen disponibles mientras estén entre las {@value #IDLE_METRICS} más recientes.
+     */
+    public synchronized TenantMetrics metrics(String tenant) {
+        Tenant t = tenants.get(tenant);
+        return t != null ? t.metrics : idleMetrics.get(tenant);
+    }
+
+    public synchronized int queueDepth(String tenant) {
+        Tenant t = tenants.get(tenant);
+        return t == null ? 0 : t.queue.size();
+    }
+
+    public synchronized int running() {
+        return running;
+    }
+
+    // Se llama con el lock tomado; los jobs elegidos se lanzan con launch una vez soltado el lock
+    private List<Start> dispatch() {
+        List<Start> starts = new ArrayList<>();
+        while (!shutdown && running < maxRunning) {
+            Tenant next = null;
+            for (Tenant t : tenants.values()) {
+                if (t.queue.isEmpty() || t.running >= t.config.maxConcurrent()) continue;
+                if (next == null || t.pass < next.pass) next = t;
+            }
+            if (next == null) break;
+            Pending pending = next.queue.poll();
+            virtualTime = next.pass;
+            next.pass += STRIDE / next.config.weight();
+            next.running++;
+            running++;
+            starts.add(new Start(next, pending, System.nanoTime() - pending.enqueuedNanos()));
+        }
+        return starts;
+    }
+
+    // Se llama sin el lock: un executor que corre en el mismo hilo no puede correr el job con el lock tomado
+    private void launch(List<Start> starts) {
+        for (Start start : starts) {
+            try {
+                executor.execute(() -> run(start.tenant(), start.pending(), start.queuedNanos()));
+            } catch (RejectedExecutionException e) {
+                // El executor se apagó: el job no llega a correr
+                synchronized (this) {
+                    start.tenant().running--;
+                    running--;
+                    start.tenant().metrics.onRejected();
+                    forgetIfIdle(start.tenant());
+                }
+                start.pending().future().completeExceptionally(e);
+            }
+        }
+    }
+
+    private void run(Tenant tenant, Pending pending, long queued) {
+        long start = System.nanoTime();
+        JobResult result = null;
+        Throwable failure = null;
+        try {
+            result = runner.execute(pending.job());
+            tenant.metrics.onCompleted(queued, System.nanoTime() - start, result.succeeded());
+        } catch (Throwable e) {
+            tenant.metrics.onCompleted(queued, System.nanoTime() - start, false);
+            failure = e;
+        }
+        List<Start> starts;
+        synchronized (this) {
+            tenant.running--;
+            running--;
+            forgetIfIdle(tenant);
+            starts = dispatch();
+        }
+        if (failure == null) {
+            pending.future().complete(result);
+        } else {
+            pending.future().completeExceptionally(failure);
+        }
+        launch(starts);
+    }
+
+    // Se llama con el lock tomado
+    private void forgetIfIdle(Tenant tenant) {
+        if (tenant.registered || !tenant.queue.isEmpty() || tenant.running > 0) return;
+        if (tenants.remove(tenant.name, tenant)) idleMetrics.put(tenant.name, tenant.metrics);
+    }
+
+    // Se llama con el lock tomado; las métricas que tenía el tenant antes de olvidarlo, o unas nuevas
+    private TenantMetrics takeMetrics(String name) {
+        TenantMetrics metrics = idleMetrics.remove(name);
+        return metrics != null ? metrics : new TenantMetrics();
+    }
+
+    private static class Tenant {
+        private final String name;
+        private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+        private final TenantMetrics metrics;
+        private TenantConfig config;
+        private boolean registered = false;
+        private int running = 0;
+        private double pass = 0;
+
+        Tenant(String name, TenantConfig config, TenantMetrics metrics) {
+            this.name = name;
+            this.config = config;
+            this.metrics = metrics;
+        }
+    }
+
+    private record Pending(ExecutionJob job, CompletableFuture<JobResult> future, long enqueuedNanos) {
+    }
+
+    private record Start(Tenant tenant, Pending pending, long queuedNanos) {
+    }
+}
@@ -6,8 +6,10 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 
 public class InputStreamToStringReader {
+    /** Tamaño fijo del buffer: acota la memoria usada para leer el fuente sin importar su largo. */
+    public static final int BUFFER_SIZE = 8 * 1024;
+
     public static Reader convert(InputStream inputStream) {
-        return new BufferedReader(new InputStreamReader(inputStream));
+        return new BufferedReader(new InputStreamReader(inputStream), BUFFER_SIZE);
     }
 }
-
@@ -0,0 +1,88 @@
+package implementation.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Cache LRU acotado y thread-safe, con contadores de hits y misses.
+ * La cota es sobre la suma de los pesos de las entradas: por defecto cada una pesa 1 (cota por cantidad).
+ * El loader corre fuera del lock: si dos hilos piden la misma clave a la vez,
+ * ambos calculan el valor y queda el último, así que el loader debe ser determinístico.
+ */
+public class LruCache<K, V> {
+    private final Map<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final long maxWeight;
+    private final ToLongFunction<? super V> weigher;
+    private long weight;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public LruCache(int capacity) {
+        this(capacity, value -> 1);
+    }
+
+    /** Acotado por peso: se desalojan las entradas menos usadas hasta que la suma no pase de maxWeight. */
+    public LruCache(long maxWeight, ToLongFunction<? super V> weigher) {
+        if (maxWeight <= 0) throw new IllegalArgumentException("capacity must be positive: " + maxWeight);
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        synchronized (entries) {
+            V cached = entries.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+        }
+        misses.incrementAndGet();
+        V value = loader.apply(key);
+        long valueWeight = weigher.applyAsLong(value);
+        // Un valor más pesado que la cota se devuelve sin guardarlo, en lugar de vaciar el cache por él
+        if (valueWeight > maxWeight) return value;
+        synchronized (entries) {
+            V previous = entries.put(key, value);
+            if (previous != null) weight -= weigher.applyAsLong(previous);
+            weight += valueWeight;
+            Iterator<V> eldest = entries.values().iterator();
+            while (weight > maxWeight && eldest.hasNext()) {
+                weight -= weigher.applyAsLong(eldest.next());
+                eldest.remove();
+            }
+        }
+        return value;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /** Suma de los pesos de las entradas guardadas. */
+    public long weight() {
+        synchronized (entries) {
+            return weight;
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            weight = 0;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package implementation.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reader sobre un archivo mapeado en memoria, decodificado como UTF-8.
+ * Los bytes se decodifican directo al buffer de quien lee (el Lexer), sin copiar el archivo al heap.
+ * Los archivos grandes se mapean por ventanas; un carácter partido entre dos ventanas
+ * se resuelve remapeando desde el primer byte sin consumir.
+ * <p>
+ * Java no tiene forma pública de desmapear: la ventana (hasta {@value #WINDOW_SIZE} bytes de espacio de
+ * direcciones) se libera recién cuando el GC junta el buffer. {@link #close()} suelta la referencia para que
+ * eso pueda pasar ya, aunque el Reader siga referenciado; hasta entonces el mapeo sigue vivo (y en Windows
+ * el archivo no se puede borrar). Para muchos archivos chicos conviene leerlos al heap en lugar de mapearlos:
+ * eso hace {@link #openSource}.
+ */
+public class MappedSourceReader extends Reader {
+    static final long WINDOW_SIZE = 64L * 1024 * 1024;
+    /** Desde este tamaño {@link #openSource} mapea el archivo; los más chicos se leen al heap. */
+    public static final long MAP_THRESHOLD = 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+    private final long windowSize;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private MappedByteBuffer window;
+    private long windowStart;
+    private boolean flushed;
+    // Segunda mitad de un par surrogate que no entró en el buffer de quien lee
+    private int pending = -1;
+
+    private MappedSourceReader(FileChannel channel, long windowSize) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+        // Al menos un carácter UTF-8 completo (4 bytes), para que remapear siempre avance
+        this.windowSize = Math.max(4, windowSize);
+        map(0);
+    }
+
+    public static MappedSourceReader open(Path path) throws IOException {
+        return open(path, WINDOW_SIZE);
+    }
+
+    /**
+     * Reader UTF-8 sobre el archivo: mapeado si tiene al menos {@link #MAP_THRESHOLD} bytes, y si no un Reader
+     * con buffer común, que no deja mapeos esperando al GC. Los dos reemplazan los bytes inválidos igual.
+     */
+    public static Reader openSource(Path path) throws IOException {
+        if (Files.size(path) >= MAP_THRESHOLD) return open(path);
+        return new BufferedReader(new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8));
+    }
+
+    static MappedSourceReader open(Path path, long windowSize) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new MappedSourceReader(channel, windowSize);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Tamaño del archivo en bytes. */
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (window == null) throw new IOException("Stream closed");
+        if (len == 0) return 0;
+        if (pending >= 0) {
+            cbuf[off] = (char) pending;
+            pending = -1;
+            return 1;
+        }
+        int read = fill(CharBuffer.wrap(cbuf, off, len));
+        if (read != 0) return read;
+        // No entró ni un carácter: es un par surrogate y pidieron un solo char. Se entrega la mitad.
+        CharBuffer pair = CharBuffer.allocate(2);
+        fill(pair);
+        cbuf[off] = pair.get(0);
+        pending = pair.get(1);
+        return 1;
+    }
+
+    /** Decodifica en out hasta llenarlo o agotar el archivo; -1 si no quedaba nada. */
+    private int fill(CharBuffer out) throws IOException {
+        int start = out.position();
+        while (!flushed) {
+            boolean lastWindow = windowStart + window.limit() >= size;
+            CoderResult result = decoder.decode(window, out, lastWindow);
+            if (result.isOverflow()) break;
+            if (result.isError()) result.throwException();
+            if (!lastWindow) {
+                map(windowStart + window.position());
+                continue;
+            }
+            if (decoder.flush(out).isOverflow()) break;
+            flushed = true;
+        }
+        int read = out.position() - start;
+        return read == 0 && flushed ? -1 : read;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Sin referencias al buffer, el mapeo se libera en el próximo GC
+        window = null;
+        channel.close();
+    }
+
+    private void map(long start) throws IOException {
+        windowStart = start;
+        long length = Math.min(windowSize, size - start);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+    }
+}
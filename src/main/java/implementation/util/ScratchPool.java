@@ -0,0 +1,36 @@
+package implementation.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Pool acotado y thread-safe de estado temporal por ejecución (buffers, listas).
+ * acquire nunca bloquea: si el pool está vacío crea uno nuevo. release lo devuelve sólo si
+ * hay lugar y si sigue siendo razonable retenerlo (por ejemplo, una lista que creció demasiado se descarta),
+ * así el pool nunca retiene más que capacity objetos chicos.
+ */
+public class ScratchPool<T> {
+    private final BlockingQueue<T> free;
+    private final Supplier<T> factory;
+    private final Predicate<T> reset;
+
+    /**
+     * @param reset limpia el objeto para reusarlo; devuelve false si no conviene guardarlo.
+     */
+    public ScratchPool(int capacity, Supplier<T> factory, Predicate<T> reset) {
+        this.free = new ArrayBlockingQueue<>(capacity);
+        this.factory = factory;
+        this.reset = reset;
+    }
+
+    public T acquire() {
+        T item = free.poll();
+        return item != null ? item : factory.get();
+    }
+
+    public void release(T item) {
+        if (reset.test(item)) free.offer(item);
+    }
+}
@@ -0,0 +1,45 @@
+package implementation.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Recorre un árbol de directorios y procesa cada archivo .ps en paralelo sobre un ForkJoinPool.
+ * Los archivos se ordenan por path antes de repartirlos y el resultado respeta ese orden,
+ * así que la salida es determinística sin importar cómo se distribuya el trabajo.
+ */
+public class SourceTree {
+    public static final String EXTENSION = ".ps";
+
+    private SourceTree() {
+    }
+
+    /** Los .ps bajo root (o root mismo si es un archivo), ordenados por path. */
+    public static List<Path> sources(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            return paths
+                .filter(Files::isRegularFile)
+                .filter(p -> p.getFileName().toString().endsWith(EXTENSION))
+                .sorted()
+                .toList();
+        } catch (UncheckedIOException e) {
+            // Files.walk reporta los errores de los subdirectorios de forma unchecked
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Errores al recorrer el árbol salen como IOException; los de cada archivo los tiene que
+     * manejar task y devolverlos en su resultado.
+     */
+    public static <R> List<R> processAll(Path root, ForkJoinPool pool, Function<Path, R> task) throws IOException {
+        List<Path> files = sources(root);
+        return pool.submit(() -> files.parallelStream().map(task).toList()).join();
+    }
+}
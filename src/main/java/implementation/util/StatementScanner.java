@@ -0,0 +1,66 @@
+package implementation.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parte un rango del fuente en statements de primer nivel sin lexear: un statement termina en ';'
+ * o en la '}' que cierra un bloque (salvo que siga un else), fuera de strings.
+ * Los espacios que siguen a un statement quedan en ese statement, así los segmentos cubren todo el rango.
+ */
+public class StatementScanner {
+    private StatementScanner() {
+    }
+
+    /**
+     * @param starts   inicio de cada statement; el primero siempre es from.
+     * @param complete false si el último statement quedó sin terminar (por ejemplo, mientras se tipea).
+     */
+    public record Result(List<Integer> starts, boolean complete) {
+    }
+
+    public static Result scan(CharSequence text, int from, int to) {
+        List<Integer> starts = new ArrayList<>();
+        starts.add(from);
+        int depth = 0;
+        char quote = 0;
+        boolean escaped = false;
+        boolean pending = false;
+        int i = from;
+        while (i < to) {
+            char c = text.charAt(i);
+            if (quote != 0) {
+                if (escaped) escaped = false;
+                else if (c == '\\') escaped = true;
+                else if (c == quote) quote = 0;
+                i++;
+                continue;
+            }
+            if (!Character.isWhitespace(c)) pending = true;
+            boolean end = false;
+            if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '{') {
+                depth++;
+            } else if (c == '}') {
+                depth = Math.max(0, depth - 1);
+                end = depth == 0 && !followedByElse(text, i + 1, to);
+            } else if (c == ';') {
+                end = depth == 0;
+            }
+            i++;
+            if (end) {
+                while (i < to && Character.isWhitespace(text.charAt(i))) i++;
+                pending = false;
+                if (i < to) starts.add(i);
+            }
+        }
+        return new Result(starts, !pending);
+    }
+
+    private static boolean followedByElse(CharSequence text, int i, int to) {
+        while (i < to && Character.isWhitespace(text.charAt(i))) i++;
+        return i + 4 <= to && "else".contentEquals(text.subSequence(i, i + 4))
+            && (i + 4 == to || !Character.isLetterOrDigit(text.charAt(i + 4)));
+    }
+}
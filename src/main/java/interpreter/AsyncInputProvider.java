@@ -0,0 +1,18 @@
+package interpreter;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * InputProvider cuya respuesta llega más tarde (por ejemplo, desde una sesión web interactiva).
+ * Ejecutado con executeAsync, el script queda estacionado en su virtual thread mientras el future no se completa,
+ * sin ocupar un carrier thread. Si la ejecución se cancela o vence su tiempo, el future se cancela.
+ */
+public interface AsyncInputProvider extends InputProvider {
+    CompletableFuture<String> inputAsync(String name);
+
+    /** Versión bloqueante, para usarlo donde se espera un InputProvider común. */
+    @Override
+    default String input(String name) {
+        return inputAsync(name).join();
+    }
+}
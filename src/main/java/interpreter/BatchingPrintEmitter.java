@@ -0,0 +1,17 @@
+package interpreter;
+
+import java.util.List;
+
+/**
+ * PrintEmitter que acepta los prints de a lotes. Los mensajes llegan en orden y
+ * antes de cada pedido de input se vacía el lote pendiente, así que el orden respecto de los prompts se mantiene.
+ */
+public interface BatchingPrintEmitter extends PrintEmitter {
+    /**
+     * @param messages mensajes en orden de ejecución, sin el salto de línea final. Como los rangos de
+     *                 {@link CharSequencePrintEmitter}, pueden ser vistas sobre el texto del print: la lista y sus
+     *                 elementos sólo son válidos durante la llamada, y si el emitter necesita conservarlos tiene que
+     *                 copiarlos (por ejemplo con {@code toString()}).
+     */
+    void printBatch(List<CharSequence> messages);
+}
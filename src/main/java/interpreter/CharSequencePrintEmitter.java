@@ -0,0 +1,20 @@
+package interpreter;
+
+/**
+ * PrintEmitter que recibe un rango de un CharSequence en lugar de un String nuevo.
+ * Permite recortar el salto de línea final de cada print sin copiar el mensaje.
+ */
+public interface CharSequencePrintEmitter extends PrintEmitter {
+    /**
+     * @param message texto del print. Sólo es válido durante la llamada: si el emitter necesita
+     *                conservarlo, tiene que copiar el rango (por ejemplo con {@code toString()}).
+     * @param offset  inicio del mensaje dentro de message.
+     * @param length  largo del mensaje.
+     */
+    void print(CharSequence message, int offset, int length);
+
+    @Override
+    default void print(String message) {
+        print(message, 0, message.length());
+    }
+}
@@ -0,0 +1,79 @@
+package benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Programas para los benchmarks: generados repitiendo una línea (como MockInputStream)
+ * o tomados de los casos del TCK en src/test/resources.
+ */
+public class Workloads {
+    /** Propiedad con el directorio de recursos del TCK; build.gradle la pasa a jmh y a test. */
+    public static final String RESOURCES_PROPERTY = "printscript.resources";
+    /** Config para los casos que no traen config.json (print-statement). */
+    public static final byte[] EMPTY_CONFIG = "{}".getBytes(StandardCharsets.UTF_8);
+
+    private Workloads() {
+    }
+
+    public static byte[] repeat(String line, int lines) {
+        byte[] lineBytes = line.getBytes();
+        byte[] program = new byte[lineBytes.length * lines];
+        for (int i = 0; i < lines; i++) {
+            System.arraycopy(lineBytes, 0, program, i * lineBytes.length, lineBytes.length);
+        }
+        return program;
+    }
+
+    public static InputStream stream(byte[] bytes) {
+        return new ByteArrayInputStream(bytes);
+    }
+
+    /** Un caso del TCK: el programa y su config ({@link #EMPTY_CONFIG} si no tiene). */
+    public record Case(String name, byte[] source, byte[] config) {
+    }
+
+    /** Todos los casos de una suite (print-statement, formatter, linter) para una versión. */
+    public static List<Case> cases(String suite, String version) {
+        Path base = resources().resolve(suite).resolve(version);
+        try (Stream<Path> dirs = Files.list(base)) {
+            return dirs.filter(Files::isDirectory).sorted().map(Workloads::load).toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * El directorio de la propiedad {@value #RESOURCES_PROPERTY}; sin ella, src/test/resources buscado desde el
+     * directorio actual hacia arriba, así no depende de dónde arranque el fork de JMH.
+     */
+    public static Path resources() {
+        String configured = System.getProperty(RESOURCES_PROPERTY);
+        if (configured != null) return Paths.get(configured);
+        for (Path dir = Paths.get("").toAbsolutePath(); dir != null; dir = dir.getParent()) {
+            Path candidate = dir.resolve("src/test/resources");
+            if (Files.isDirectory(candidate)) return candidate;
+        }
+        throw new IllegalStateException("src/test/resources not found, set -D" + RESOURCES_PROPERTY);
+    }
+
+    private static Case load(Path dir) {
+        try {
+            Path config = dir.resolve("config.json");
+            return new Case(
+                dir.getFileName().toString(),
+                Files.readAllBytes(dir.resolve("main.ps")),
+                Files.exists(config) ? Files.readAllBytes(config) : EMPTY_CONFIG);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
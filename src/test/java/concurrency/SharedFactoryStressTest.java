@@ -0,0 +1,139 @@
+package concurrency;
+
+import implementation.CustomImplementationFactory;
+import implementation.PrintScriptFactory;
+import org.junit.Test;
+import util.ErrorCollector;
+import util.PrintCollector;
+import util.QueueInputProvider;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static util.Queues.toQueue;
+
+/**
+ * Una sola factory compartida por varios hilos que ejecutan, formatean y lintean a la vez:
+ * cada resultado tiene que ser idéntico al de correr el mismo caso en un solo hilo.
+ * Los hilos arrancan juntos y cada uno recorre los casos en otro orden en cada ronda, para que
+ * el mismo caso (y la misma config cacheada) corra en varios hilos al mismo tiempo.
+ * Corre en la tarea stressTest, no en test.
+ */
+public class SharedFactoryStressTest {
+    private static final int THREADS = Math.max(16, Runtime.getRuntime().availableProcessors() * 2);
+    private static final int ROUNDS = 25;
+    private static final String VERSION = "1.1";
+
+    private final PrintScriptFactory factory = new CustomImplementationFactory();
+
+    @Test
+    public void sharedInstancesGiveSameResultsAsSequentialRuns() throws Exception {
+        List<Callable<String>> tasks = new ArrayList<>();
+        tasks.addAll(cases("print-statement", this::execute));
+        tasks.addAll(cases("formatter", this::format));
+        tasks.addAll(cases("linter", this::lint));
+
+        List<String> expected = new ArrayList<>();
+        for (Callable<String> task : tasks) expected.add(task.call());
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<List<String>>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                long seed = t;
+                workers.add(executor.submit(() -> {
+                    Random random = new Random(seed);
+                    List<Integer> order = new ArrayList<>();
+                    for (int i = 0; i < tasks.size(); i++) order.add(i);
+                    List<String> mismatches = new ArrayList<>();
+                    start.await();
+                    for (int round = 0; round < ROUNDS; round++) {
+                        Collections.shuffle(order, random);
+                        for (int i : order) {
+                            String actual = tasks.get(i).call();
+                            if (!actual.equals(expected.get(i))) mismatches.add("case " + i + ": " + actual);
+                        }
+                    }
+                    return mismatches;
+                }));
+            }
+            start.countDown();
+            for (Future<List<String>> worker : workers) {
+                assertThat(worker.get(), is(List.of()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private String execute(Path dir) {
+        PrintCollector printCollector = new PrintCollector();
+        ErrorCollector errorCollector = new ErrorCollector();
+        Path input = dir.resolve("input.txt");
+        List<String> inputs = Files.exists(input) ? readLines(input) : List.of();
+        factory.interpreter().execute(new ByteArrayInputStream(read(dir.resolve("main.ps"))), VERSION,
+            printCollector, errorCollector, new QueueInputProvider(toQueue(inputs)));
+        return printCollector.getMessages() + " " + errorCollector.getErrors();
+    }
+
+    private String format(Path dir) {
+        StringWriter writer = new StringWriter();
+        try {
+            factory.formatter().format(new ByteArrayInputStream(read(dir.resolve("main.ps"))), VERSION,
+                new ByteArrayInputStream(read(dir.resolve("config.json"))), writer);
+        } catch (RuntimeException e) {
+            return "error: " + e.getMessage();
+        }
+        return writer.toString();
+    }
+
+    private String lint(Path dir) {
+        ErrorCollector errorCollector = new ErrorCollector();
+        factory.linter().lint(new ByteArrayInputStream(read(dir.resolve("main.ps"))), VERSION,
+            new ByteArrayInputStream(read(dir.resolve("config.json"))), errorCollector);
+        return errorCollector.getErrors().toString();
+    }
+
+    private static List<Callable<String>> cases(String suite, Function<Path, String> run) throws IOException {
+        try (Stream<Path> dirs = Files.list(Paths.get("src/test/resources/" + suite + "/" + VERSION + "/"))) {
+            return dirs.filter(Files::isDirectory).sorted()
+                .map(dir -> (Callable<String>) () -> run.apply(dir))
+                .toList();
+        }
+    }
+
+    private static byte[] read(Path file) {
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<String> readLines(Path file) {
+        try {
+            return Files.readAllLines(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package daemon;
+
+import implementation.CustomImplementationFactory;
+import implementation.PrintScriptFactory;
+import implementation.daemon.DaemonClient;
+import implementation.daemon.DaemonProtocol;
+import implementation.daemon.DaemonProtocol.Op;
+import implementation.daemon.DaemonProtocol.Request;
+import implementation.daemon.DaemonProtocol.Response;
+import implementation.daemon.PrintScriptDaemon;
+import implementation.limits.ResourceLimits;
+import interpreter.PrintScriptFormatter;
+import interpreter.PrintScriptInterpreter;
+import interpreter.PrintScriptLinter;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class DaemonTest {
+    private static final SocketAddress LOOPBACK = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+
+    private static Request request(Op op, String source, String config, List<String> inputs) {
+        return new Request(op, "1.1", config.getBytes(StandardCharsets.UTF_8), source.getBytes(StandardCharsets.UTF_8), inputs);
+    }
+
+    @Test
+    public void servesSeveralRequestsOnOneConnection() throws IOException {
+        try (PrintScriptDaemon daemon = PrintScriptDaemon.start(new CustomImplementationFactory(), LOOPBACK);
+             DaemonClient client = DaemonClient.connect(daemon.address())) {
+            Response executed = client.send(request(Op.EXECUTE,
+                "let name: string = readInput(\"name\");\nprintln(name);", "", List.of("Ana")));
+            Response linted = client.send(request(Op.LINT, "let my_var: number = 1;", "{\"identifier_format\": \"camel case\"}", List.of()));
+
+            assertThat(executed.ok(), is(true));
+            assertThat(executed.output(), is(List.of("Ana")));
+            assertThat(executed.errors(), is(List.of()));
+            assertThat(linted.ok(), is(true));
+            assertThat(linted.errors().size(), is(1));
+        }
+    }
+
+    @Test
+    public void executeRunsUnderTheDaemonLimits() throws IOException {
+        ResourceLimits limits = ResourceLimits.UNLIMITED.withMaxOutputChars(3);
+        try (PrintScriptDaemon daemon = PrintScriptDaemon.start(new CustomImplementationFactory(), LOOPBACK, limits);
+             DaemonClient client = DaemonClient.connect(daemon.address())) {
+            Response response = client.send(request(Op.EXECUTE, "println(\"too long\");", "", List.of()));
+
+            assertThat(response.errors(), is(List.of("Resource limit exceeded: output chars > 3")));
+        }
+    }
+
+    @Test
+    public void errorsFromTheToolsAreAnsweredAndTheConnectionSurvives() throws IOException {
+        CustomImplementationFactory real = new CustomImplementationFactory();
+        PrintScriptFactory failing = new PrintScriptFactory() {
+            public PrintScriptInterpreter interpreter() {
+                return real.interpreter();
+            }
+
+            public PrintScriptFormatter formatter() {
+                return (src, version, config, writer) -> {
+                    throw new StackOverflowError();
+                };
+            }
+
+            public PrintScriptLinter linter() {
+                return real.linter();
+            }
+        };
+        try (PrintScriptDaemon daemon = PrintScriptDaemon.start(failing, LOOPBACK);
+             DaemonClient client = DaemonClient.connect(daemon.address())) {
+            Response formatted = client.send(request(Op.FORMAT, "println(1);", "{}", List.of()));
+            Response executed = client.send(request(Op.EXECUTE, "println(\"still here\");", "", List.of()));
+
+            assertThat(formatted.ok(), is(false));
+            assertThat(formatted.errors(), is(List.of("StackOverflowError")));
+            assertThat(executed.output(), is(List.of("still here")));
+        }
+    }
+
+    @Test
+    public void aLiveSocketIsNotTakenOverButAStaleOneIs() throws IOException {
+        Path dir = Files.createTempDirectory("daemon");
+        Path socket = dir.resolve("ps.sock");
+        try {
+            try (PrintScriptDaemon daemon = PrintScriptDaemon.start(new CustomImplementationFactory(), UnixDomainSocketAddress.of(socket))) {
+                try {
+                    PrintScriptDaemon.start(new CustomImplementationFactory(), UnixDomainSocketAddress.of(socket)).close();
+                    throw new AssertionError("expected the live socket to be kept");
+                } catch (IOException e) {
+                    assertThat(e.getMessage(), is("A daemon is already listening on " + socket));
+                }
+            }
+            // Lo que queda de una corrida que murió sin borrar el archivo
+            Files.writeString(socket, "");
+            try (PrintScriptDaemon daemon = PrintScriptDaemon.start(new CustomImplementationFactory(), UnixDomainSocketAddress.of(socket));
+                 DaemonClient client = DaemonClient.connect(daemon.address())) {
+                assertThat(client.send(request(Op.EXECUTE, "println(\"ok\");", "", List.of())).output(), is(List.of("ok")));
+            }
+        } finally {
+            Files.deleteIfExists(socket);
+            Files.delete(dir);
+        }
+    }
+
+    @Test
+    public void outputThatDoesNotFitInAFrameIsAnsweredAsAnError() throws IOException {
+        // Líneas vacías: el test corre con el heap chico de la tarea test
+        String program = "println(\"\");\n".repeat(DaemonProtocol.MAX_LIST_SIZE + 1);
+        try (PrintScriptDaemon daemon = PrintScriptDaemon.start(new CustomImplementationFactory(), LOOPBACK);
+             DaemonClient client = DaemonClient.connect(daemon.address())) {
+            Response tooLarge = client.send(request(Op.EXECUTE, program, "", List.of()));
+            Response next = client.send(request(Op.EXECUTE, "println(\"still here\");", "", List.of()));
+
+            assertThat(tooLarge.ok(), is(false));
+            assertThat(tooLarge.errors(), is(List.of("Response too large: " + (DaemonProtocol.MAX_LIST_SIZE + 1)
+                + " items in a list (max " + DaemonProtocol.MAX_LIST_SIZE + ")")));
+            assertThat(next.output(), is(List.of("still here")));
+        }
+    }
+
+    @Test
+    public void aRequestThatDoesNotFitInAFrameIsNotSent() {
+        List<String> inputs = Collections.nCopies(DaemonProtocol.MAX_LIST_SIZE + 1, "x");
+        try {
+            frame(request(Op.EXECUTE, "println(1);", "", inputs));
+            throw new AssertionError("expected the request to be rejected");
+        } catch (IOException e) {
+            assertThat(e.getMessage().startsWith("Request too large"), is(true));
+        }
+    }
+
+    @Test(expected = EOFException.class)
+    public void aTruncatedFrameIsAnError() throws IOException {
+        byte[] frame = frame(request(Op.FORMAT, "println(1);", "{}", List.of()));
+
+        Request.read(new DataInputStream(new ByteArrayInputStream(Arrays.copyOf(frame, frame.length - 3))));
+    }
+
+    @Test
+    public void oversizedOrNegativeFieldsAreRejectedBeforeAllocating() throws IOException {
+        for (int length : new int[]{-1, DaemonProtocol.MAX_FRAME_BYTES + 1}) {
+            assertRejected(rawFrame(length, 0));
+        }
+        assertRejected(rawFrame(0, DaemonProtocol.MAX_LIST_SIZE + 1));
+        assertRejected(rawFrame(0, -1));
+    }
+
+    private static void assertRejected(byte[] frame) {
+        try {
+            Request.read(new DataInputStream(new ByteArrayInputStream(frame)));
+            throw new AssertionError("expected the frame to be rejected");
+        } catch (IOException e) {
+            assertThat(e instanceof EOFException, is(false));
+        }
+    }
+
+    // op FORMAT, versión de largo versionLength, config y fuente vacíos, inputCount inputs
+    private static byte[] rawFrame(int versionLength, int inputCount) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(Op.FORMAT.ordinal());
+        out.writeInt(versionLength);
+        if (versionLength <= 0) {
+            out.writeInt(0);
+            out.writeInt(0);
+            out.writeInt(inputCount);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] frame(Request request) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        request.write(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+}
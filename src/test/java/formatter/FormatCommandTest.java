@@ -0,0 +1,64 @@
+package formatter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import util.CliRun;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.hamcrest.CoreMatchers.endsWith;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class FormatCommandTest {
+    private static final Path CASE = Paths.get("src/test/resources/formatter/1.0/assign-spacing-surrounding-equals/");
+
+    private Path root;
+    private Path file;
+    private String golden;
+
+    @Before
+    public void createTree() throws IOException {
+        root = Files.createTempDirectory("format-cli");
+        file = root.resolve("main.ps");
+        Files.writeString(file, Files.readString(CASE.resolve("main.ps")) + "\n");
+        golden = Files.readString(CASE.resolve("golden.ps")) + "\n";
+    }
+
+    @After
+    public void deleteTree() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) Files.delete(p);
+        }
+    }
+
+    @Test
+    public void formatRewritesChangedFilesAndListsThem() throws IOException {
+        CliRun run = CliRun.run("", "format", root.toString(), "--version", "1.0", "--config", CASE.resolve("config.json").toString());
+
+        assertThat(run.exitCode(), is(0));
+        assertThat(run.out(), is(file + ": formatted" + System.lineSeparator()));
+        assertThat(Files.readString(file), is(golden));
+
+        CliRun again = CliRun.run("", "format", root.toString(), "--version", "1.0", "--config", CASE.resolve("config.json").toString());
+        assertThat(again.out(), is(""));
+    }
+
+    @Test
+    public void checkReportsUnformattedFilesWithoutWriting() throws IOException {
+        String before = Files.readString(file);
+
+        CliRun run = CliRun.run("", "check", root.toString(), "--version", "1.0", "--config", CASE.resolve("config.json").toString());
+
+        assertThat(run.exitCode(), is(1));
+        // check también lintea: el formato es lo último que informa
+        assertThat(run.out(), endsWith(file + ": not formatted" + System.lineSeparator()));
+        assertThat(Files.readString(file), is(before));
+    }
+}
@@ -0,0 +1,81 @@
+package formatter;
+
+import benchmark.Workloads;
+import implementation.formatter.FileFormatResult;
+import implementation.formatter.FormatMode;
+import implementation.formatter.MyPrintScriptFormatter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class FormatTreeTest {
+    private static final Path CASE = Workloads.resources().resolve("formatter/1.0/assign-spacing-surrounding-equals");
+
+    private Path root;
+    private String golden;
+    private String unformatted;
+    private Path config;
+
+    @Before
+    public void createTree() throws IOException {
+        root = Files.createTempDirectory("format-tree");
+        config = CASE.resolve("config.json");
+        // Archivos como los deja un editor: con salto de línea final
+        golden = Files.readString(CASE.resolve("golden.ps")) + "\n";
+        unformatted = Files.readString(CASE.resolve("main.ps")) + "\n";
+        Files.writeString(root.resolve("ok.ps"), golden);
+        Files.createDirectories(root.resolve("nested"));
+        Files.writeString(root.resolve("nested/bad.ps"), unformatted);
+        Files.writeString(root.resolve("notes.txt"), "not PrintScript");
+    }
+
+    @After
+    public void deleteTree() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) Files.delete(p);
+        }
+    }
+
+    @Test
+    public void checkReportsOnlyFilesThatNeedFormattingAndWritesNothing() throws IOException {
+        List<FileFormatResult> results = new MyPrintScriptFormatter().formatTree(root, "1.0", config, FormatMode.CHECK);
+
+        assertThat(results.size(), is(2));
+        assertThat(results.get(0).file(), is(root.resolve("nested/bad.ps")));
+        assertThat(results.get(0).changed(), is(true));
+        assertThat(results.get(1).file(), is(root.resolve("ok.ps")));
+        assertThat(results.get(1).changed(), is(false));
+        assertThat(results.get(1).error(), is(nullValue()));
+        assertThat(Files.readString(root.resolve("nested/bad.ps")), is(unformatted));
+    }
+
+    @Test
+    public void writeKeepsTheTrailingNewline() throws IOException {
+        new MyPrintScriptFormatter().formatTree(root, "1.0", config, FormatMode.WRITE);
+
+        assertThat(Files.readString(root.resolve("nested/bad.ps")), is(golden));
+        assertThat(Files.readString(root.resolve("ok.ps")), is(golden));
+        List<FileFormatResult> again = new MyPrintScriptFormatter().formatTree(root, "1.0", config, FormatMode.CHECK);
+        assertThat(again.stream().noneMatch(FileFormatResult::changed), is(true));
+    }
+
+    @Test(expected = NoSuchFileException.class)
+    public void aMissingRootIsAnIOException() throws IOException {
+        new MyPrintScriptFormatter().formatTree(root.resolve("missing"), "1.0",
+            "{}".getBytes(StandardCharsets.UTF_8), FormatMode.CHECK, ForkJoinPool.commonPool());
+    }
+}
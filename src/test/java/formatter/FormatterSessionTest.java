@@ -0,0 +1,90 @@
+package formatter;
+
+import implementation.formatter.FormatterSession;
+import implementation.formatter.MyPrintScriptFormatter;
+import implementation.formatter.TextEdit;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class FormatterSessionTest {
+    private static final String VERSION = "1.0";
+    private static final String CONFIG = "{\"enforce-spacing-around-equals\": true}";
+
+    private final MyPrintScriptFormatter formatter = new MyPrintScriptFormatter();
+    private FormatterSession session;
+    // Copia del documento del lado del editor: recibe los mismos cambios que la sesión
+    private StringBuilder client;
+
+    @Before
+    public void open() throws IOException {
+        String initial = "let a:number=1;   let b:number =2;\nprintln(a);";
+        session = formatter.openSession(initial, VERSION, config());
+        client = new StringBuilder(initial);
+        apply(session.formatAll());
+    }
+
+    @Test
+    public void formatAllMatchesAFullFormat() {
+        assertThat(session.text(), is(fullFormat("let a:number=1;   let b:number =2;\nprintln(a);")));
+        assertThat(client.toString(), is(session.text()));
+    }
+
+    @Test
+    public void typingInsideAStatementMatchesAFullFormat() {
+        int offset = session.text().indexOf("2;");
+        userEdit(offset, 1, "   42");
+
+        assertThat(client.toString(), is(session.text()));
+        assertThat(session.text(), is(fullFormat(session.text())));
+        assertThat(session.text().contains("let b:number = 42;"), is(true));
+    }
+
+    @Test
+    public void insertingAndRemovingStatementsMatchesAFullFormat() {
+        String typed = "let   c:number=3;";
+        String beforeFormat = new StringBuilder(session.text()).insert(0, typed).toString();
+        userEdit(0, 0, typed);
+        assertThat(session.text(), is(fullFormat(beforeFormat)));
+
+        int start = session.text().indexOf("let b");
+        int end = session.text().indexOf(';', start) + 1;
+        beforeFormat = new StringBuilder(session.text()).delete(start, end).toString();
+        userEdit(start, end - start, "");
+        assertThat(session.text(), is(fullFormat(beforeFormat)));
+        assertThat(client.toString(), is(session.text()));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void editsOutsideTheDocumentAreRejected() {
+        session.edit(session.text().length(), 1, "x");
+    }
+
+    private void userEdit(int offset, int removedLength, String inserted) {
+        client.replace(offset, offset + removedLength, inserted);
+        apply(session.edit(offset, removedLength, inserted));
+    }
+
+    private void apply(List<TextEdit> edits) {
+        for (TextEdit edit : edits) client.replace(edit.offset(), edit.offset() + edit.length(), edit.newText());
+    }
+
+    private String fullFormat(String text) {
+        StringWriter out = new StringWriter();
+        formatter.format(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), VERSION, config(), out);
+        return out.toString();
+    }
+
+    private static InputStream config() {
+        return new ByteArrayInputStream(CONFIG.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,75 @@
+package formatter;
+
+import implementation.cache.ResultCache;
+import implementation.formatter.MyPrintScriptFormatter;
+import implementation.formatter.RulesCache;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ResultCacheTest {
+
+    @Test
+    public void theMemoryTierIsBoundedByBytes() {
+        ResultCache cache = new ResultCache(100, null, "test");
+        AtomicInteger computed = new AtomicInteger();
+
+        for (String key : new String[]{"a", "b", "c"}) {
+            cache.get(key, () -> {
+                computed.incrementAndGet();
+                return new byte[40];
+            });
+        }
+        assertThat(cache.memoryBytes(), is(80L));
+
+        // "a" fue el menos usado: se desalojó y se vuelve a calcular
+        cache.get("a", () -> {
+            computed.incrementAndGet();
+            return new byte[40];
+        });
+        assertThat(computed.get(), is(4));
+    }
+
+    @Test
+    public void resultsLargerThanTheTierAreNotKept() {
+        ResultCache cache = new ResultCache(100, null, "test");
+        cache.get("small", () -> new byte[10]);
+
+        cache.get("big", () -> new byte[101]);
+
+        assertThat(cache.memoryBytes(), is(10L));
+    }
+
+    @Test
+    public void theDefaultBuildIdHashesTheCode() {
+        assertThat(ResultCache.defaultBuildId().length(), is(64));
+        assertThat(ResultCache.defaultBuildId(), is(ResultCache.defaultBuildId()));
+    }
+
+    @Test
+    public void cachedAndUncachedFormatsAgreeOnNonAsciiSource() {
+        String program = "let   saludo: string = \"¡hola, ñandú!\";\nprintln(saludo);";
+        ResultCache cache = new ResultCache();
+        MyPrintScriptFormatter cached = new MyPrintScriptFormatter(new RulesCache(), cache);
+
+        String first = format(cached, program);
+        String hit = format(cached, program);
+
+        assertThat(first, is(format(new MyPrintScriptFormatter(), program)));
+        assertThat(hit, is(first));
+        assertThat(cache.getHits(), is(1L));
+    }
+
+    private static String format(MyPrintScriptFormatter formatter, String program) {
+        StringWriter out = new StringWriter();
+        formatter.format(new ByteArrayInputStream(program.getBytes(StandardCharsets.UTF_8)), "1.0",
+            new ByteArrayInputStream("{}".getBytes(StandardCharsets.UTF_8)), out);
+        return out.toString();
+    }
+}
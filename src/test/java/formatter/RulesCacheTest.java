@@ -0,0 +1,43 @@
+package formatter;
+
+import implementation.formatter.RulesCache;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class RulesCacheTest {
+    private static final byte[] CONFIG = "{\"enforce-spacing-around-equals\": true}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void equivalentVersionSpellingsShareOneEntry() {
+        RulesCache cache = new RulesCache();
+        cache.acquire(CONFIG, "1.1").close();
+        cache.acquire(CONFIG, "1.1.0").close();
+        assertThat(cache.size(), is(1));
+        assertThat(cache.getMisses(), is(1L));
+    }
+
+    @Test
+    public void aRuleListIsNeverLentTwiceAtTheSameTime() {
+        RulesCache cache = new RulesCache();
+        try (RulesCache.Lease first = cache.acquire(CONFIG, "1.0");
+             RulesCache.Lease second = cache.acquire(CONFIG, "1.0")) {
+            assertThat(first.rules(), not(sameInstance(second.rules())));
+        }
+    }
+
+    @Test
+    public void returnedListsAreReused() {
+        RulesCache cache = new RulesCache();
+        RulesCache.Lease first = cache.acquire(CONFIG, "1.0");
+        first.close();
+        try (RulesCache.Lease again = cache.acquire(CONFIG, "1.0")) {
+            assertThat(again.rules(), sameInstance(first.rules()));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package interpreter;
+
+import implementation.CustomImplementationFactory;
+import implementation.batch.BatchExecution;
+import implementation.batch.BatchSummary;
+import implementation.batch.ExecutionJob;
+import implementation.batch.JobResult;
+import org.junit.Test;
+import util.ErrorCollector;
+import util.PrintCollector;
+import util.QueueInputProvider;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class BatchExecutionTest {
+
+    @Test
+    public void everyJobGetsItsOwnOutputAndResultsKeepSubmissionOrder() {
+        List<PrintCollector> prints = new ArrayList<>();
+        List<ExecutionJob> jobs = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            PrintCollector collector = new PrintCollector();
+            prints.add(collector);
+            jobs.add(job("println(\"job " + i + "\");", collector, new ErrorCollector()));
+        }
+
+        BatchExecution execution = new CustomImplementationFactory().executeAll(jobs);
+        BatchSummary summary = execution.summary().join();
+
+        assertThat(summary.jobs(), is(20));
+        assertThat(summary.failedJobs(), is(0));
+        for (int i = 0; i < 20; i++) {
+            JobResult result = execution.results().get(i).join();
+            assertThat(result.job(), is(jobs.get(i)));
+            assertThat(prints.get(i).getMessages(), is(List.of("job " + i)));
+        }
+    }
+
+    @Test
+    public void failedJobsAreCountedWithoutStoppingTheBatch() {
+        ErrorCollector errors = new ErrorCollector();
+        List<ExecutionJob> jobs = List.of(
+            job("println(\"ok\");", new PrintCollector(), new ErrorCollector()),
+            job("println(undefinedVariable);", new PrintCollector(), errors));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            BatchExecution execution = new CustomImplementationFactory().executeAll(jobs, executor);
+            BatchSummary summary = execution.summary().join();
+            assertThat(summary.failedJobs(), is(1));
+            assertThat(execution.results().get(0).join().succeeded(), is(true));
+            assertThat(execution.results().get(1).join().errorCount(), is(errors.getErrors().size()));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static ExecutionJob job(String source, PrintCollector prints, ErrorCollector errors) {
+        return new ExecutionJob(new ByteArrayInputStream(source.getBytes(StandardCharsets.UTF_8)), "1.0",
+            new QueueInputProvider(new LinkedList<>()), prints, errors);
+    }
+}
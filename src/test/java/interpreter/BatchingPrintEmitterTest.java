@@ -0,0 +1,110 @@
+package interpreter;
+
+import implementation.interpreter.CustomOutput;
+import implementation.interpreter.MyPrintScriptInterpreter;
+import org.junit.Test;
+import util.ErrorCollector;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class BatchingPrintEmitterTest {
+
+    /** Anota cada lote y cada input en orden. */
+    private static class RecordingEmitter implements BatchingPrintEmitter, InputProvider {
+        final List<String> events = new ArrayList<>();
+        final List<Integer> batchSizes = new ArrayList<>();
+        // Cuántos mensajes llegaron como String copiado en lugar de como vista
+        int copies = 0;
+
+        @Override
+        public void printBatch(List<CharSequence> messages) {
+            batchSizes.add(messages.size());
+            for (CharSequence message : messages) {
+                if (message instanceof String) copies++;
+                events.add(message.toString());
+            }
+        }
+
+        @Override
+        public void print(String message) {
+            events.add("single:" + message);
+        }
+
+        @Override
+        public String input(String name) {
+            events.add("input:" + name);
+            return "Ana";
+        }
+    }
+
+    private static void run(String program, RecordingEmitter emitter, ErrorHandler handler) {
+        new MyPrintScriptInterpreter().execute(new ByteArrayInputStream(program.getBytes(StandardCharsets.UTF_8)), "1.1",
+            emitter, handler, emitter);
+    }
+
+    @Test
+    public void printsArriveInBatchesOfAtMostBatchSize() {
+        StringBuilder program = new StringBuilder();
+        int prints = CustomOutput.BATCH_SIZE * 2 + 10;
+        for (int i = 0; i < prints; i++) program.append("println(\"m").append(i).append("\");\n");
+        RecordingEmitter emitter = new RecordingEmitter();
+        ErrorCollector errors = new ErrorCollector();
+
+        run(program.toString(), emitter, errors);
+
+        assertThat(errors.getErrors().isEmpty(), is(true));
+        assertThat(emitter.batchSizes, is(List.of(CustomOutput.BATCH_SIZE, CustomOutput.BATCH_SIZE, 10)));
+        assertThat(emitter.events.size(), is(prints));
+        assertThat(emitter.events.get(0), is("m0"));
+        assertThat(emitter.events.get(prints - 1), is("m" + (prints - 1)));
+        // El salto de línea se recorta sin copiar cada mensaje
+        assertThat(emitter.copies, is(0));
+    }
+
+    @Test
+    public void pendingPrintsAreFlushedBeforeEachInput() {
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        run("println(\"before\");\nlet name: string = readInput(\"name\");\nprintln(name);\n", emitter, new ErrorCollector());
+
+        assertThat(emitter.events, is(List.of("before", "input:name", "Ana")));
+    }
+
+    @Test
+    public void aFailingFlushDoesNotHideTheOriginalError() {
+        RecordingEmitter emitter = new RecordingEmitter() {
+            @Override
+            public void printBatch(List<CharSequence> messages) {
+                throw new IllegalStateException("emitter closed");
+            }
+        };
+        ErrorCollector errors = new ErrorCollector();
+
+        run("println(\"before\");\nprintln(undefinedVariable);\n", emitter, errors);
+
+        assertThat(errors.getErrors().size(), is(1));
+        assertThat(errors.getErrors().get(0), containsString("undefinedVariable"));
+    }
+
+    @Test
+    public void aFailingFlushIsReportedWhenTheProgramSucceeds() {
+        RecordingEmitter emitter = new RecordingEmitter() {
+            @Override
+            public void printBatch(List<CharSequence> messages) {
+                throw new IllegalStateException("emitter closed");
+            }
+        };
+        ErrorCollector errors = new ErrorCollector();
+
+        run("println(\"before\");\n", emitter, errors);
+
+        assertThat(errors.getErrors(), is(List.of("emitter closed")));
+    }
+}
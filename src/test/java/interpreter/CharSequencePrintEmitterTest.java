@@ -0,0 +1,63 @@
+package interpreter;
+
+import implementation.interpreter.CustomOutput;
+import implementation.interpreter.MyPrintScriptInterpreter;
+import org.junit.Test;
+import util.ErrorCollector;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class CharSequencePrintEmitterTest {
+
+    /** Copia cada rango y anota si vino por la ruta de rangos. */
+    private static class RangeCollector implements CharSequencePrintEmitter {
+        final List<String> messages = new ArrayList<>();
+        final List<Integer> trimmed = new ArrayList<>();
+
+        @Override
+        public void print(CharSequence message, int offset, int length) {
+            messages.add(message.subSequence(offset, offset + length).toString());
+            trimmed.add(message.length() - length);
+        }
+    }
+
+    @Test
+    public void printsArriveAsRangesWithoutTheTrailingNewline() {
+        RangeCollector emitter = new RangeCollector();
+        ErrorCollector errors = new ErrorCollector();
+
+        new MyPrintScriptInterpreter().execute(
+            new ByteArrayInputStream("println(\"hello\");\nprintln(\"a;b\");\n".getBytes(StandardCharsets.UTF_8)), "1.0",
+            emitter, errors, name -> null);
+
+        assertThat(errors.getErrors().isEmpty(), is(true));
+        assertThat(emitter.messages, is(List.of("hello", "a;b")));
+        // El mensaje completo trae el '\n' y el rango lo deja afuera
+        assertThat(emitter.trimmed, is(List.of(1, 1)));
+    }
+
+    @Test
+    public void messagesWithoutNewlineKeepTheirFullLength() {
+        RangeCollector emitter = new RangeCollector();
+
+        new CustomOutput(emitter).write("no newline");
+
+        assertThat(emitter.messages, is(List.of("no newline")));
+        assertThat(emitter.trimmed, is(List.of(0)));
+    }
+
+    @Test
+    public void thePlainPrintDelegatesToTheWholeRange() {
+        RangeCollector emitter = new RangeCollector();
+
+        emitter.print("plain");
+
+        assertThat(emitter.messages, is(List.of("plain")));
+    }
+}
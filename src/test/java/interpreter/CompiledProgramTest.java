@@ -0,0 +1,83 @@
+package interpreter;
+
+import implementation.interpreter.CompiledProgram;
+import implementation.interpreter.MyPrintScriptInterpreter;
+import org.junit.Test;
+import util.ErrorCollector;
+import util.PrintCollector;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class CompiledProgramTest {
+    private static final String PROGRAM = "println(\"first\");\n\n    println(  undefinedVariable );\n";
+
+    private final MyPrintScriptInterpreter interpreter = new MyPrintScriptInterpreter();
+
+    @Test
+    public void errorsKeepTheirPositionInTheOriginalSource() {
+        ErrorCollector direct = new ErrorCollector();
+        interpreter.execute(source(PROGRAM), "1.1", new PrintCollector(), direct, name -> null);
+        ErrorCollector compiled = new ErrorCollector();
+        PrintCollector prints = new PrintCollector();
+
+        interpreter.execute(interpreter.precompile(source(PROGRAM), "1.1"), prints, compiled, name -> null);
+
+        assertThat(direct.getErrors().size(), is(1));
+        assertThat(compiled.getErrors(), is(direct.getErrors()));
+        assertThat(prints.getMessages(), is(List.of("first")));
+    }
+
+    @Test
+    public void syntaxErrorsAreReportedAtCompileTimeWithTheirPosition() {
+        String program = "println(\"ok\");\n  println(@);\n";
+        ErrorCollector direct = new ErrorCollector();
+        interpreter.execute(source(program), "1.1", new PrintCollector(), direct, name -> null);
+
+        try {
+            interpreter.precompile(source(program), "1.1");
+            throw new AssertionError("expected a compile error");
+        } catch (RuntimeException e) {
+            assertThat(e.getMessage(), is("Compile error: " + direct.getErrors().get(0)));
+        }
+    }
+
+    @Test
+    public void writeAndReadRoundTrip() throws IOException {
+        CompiledProgram program = interpreter.precompile(source(PROGRAM), "1.1");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        program.write(out);
+
+        CompiledProgram read = CompiledProgram.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertThat(read.version(), is(program.version()));
+        assertThat(read.statements(), is(2));
+        assertThat(read.isCompiledFrom(PROGRAM.getBytes(StandardCharsets.UTF_8)), is(true));
+        ErrorCollector errors = new ErrorCollector();
+        interpreter.execute(read, new PrintCollector(), errors, name -> null);
+        assertThat(errors.getErrors().get(0), containsString("undefinedVariable"));
+    }
+
+    @Test(expected = EOFException.class)
+    public void aTruncatedArtifactIsRejected() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        interpreter.precompile(source(PROGRAM), "1.1").write(out);
+        byte[] bytes = out.toByteArray();
+
+        CompiledProgram.read(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 5)));
+    }
+
+    private static InputStream source(String program) {
+        return new ByteArrayInputStream(program.getBytes(StandardCharsets.UTF_8));
+    }
+}
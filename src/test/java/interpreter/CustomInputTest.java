@@ -0,0 +1,131 @@
+package interpreter;
+
+import implementation.interpreter.CustomInput;
+import implementation.limits.ExecutionCancelledException;
+import implementation.limits.ResourceBudget;
+import implementation.limits.ResourceLimitExceededException;
+import implementation.limits.ResourceLimits;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class CustomInputTest {
+    private static final ResourceLimits SHORT_WALL_TIME = ResourceLimits.UNLIMITED.withMaxWallTime(Duration.ofMillis(200));
+
+    /** AsyncInputProvider cuyas respuestas se completan desde el test. */
+    private static class PendingProvider implements AsyncInputProvider {
+        final CompletableFuture<String> answer = new CompletableFuture<>();
+        final CountDownLatch asked = new CountDownLatch(1);
+
+        @Override
+        public CompletableFuture<String> inputAsync(String name) {
+            asked.countDown();
+            return answer;
+        }
+    }
+
+    /** Lee en un virtual thread y guarda el valor o la excepción. */
+    private static class Reader {
+        final Thread thread;
+        volatile Object outcome;
+
+        Reader(CustomInput input) {
+            thread = Thread.ofVirtual().start(() -> {
+                try {
+                    outcome = input.read("name");
+                } catch (RuntimeException e) {
+                    outcome = e;
+                }
+            });
+        }
+
+        Object await() throws InterruptedException {
+            thread.join(Duration.ofSeconds(10));
+            return outcome;
+        }
+    }
+
+    @Test
+    public void manyParkedReadsResumeWithTheirOwnAnswer() throws InterruptedException {
+        List<PendingProvider> providers = new ArrayList<>();
+        List<Reader> readers = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            PendingProvider provider = new PendingProvider();
+            providers.add(provider);
+            readers.add(new Reader(new CustomInput(provider)));
+        }
+        for (PendingProvider provider : providers) provider.asked.await();
+        for (int i = 0; i < providers.size(); i++) providers.get(i).answer.complete("answer " + i);
+
+        for (int i = 0; i < readers.size(); i++) {
+            assertThat(readers.get(i).await(), is("answer " + i));
+        }
+    }
+
+    @Test
+    public void aReadThatOutlivesTheWallTimeFailsWithTheLimitAndCancelsTheFuture() throws InterruptedException {
+        PendingProvider provider = new PendingProvider();
+        ResourceBudget budget = new ResourceBudget(SHORT_WALL_TIME);
+
+        Object outcome = new Reader(new CustomInput(provider, null, budget, null)).await();
+
+        assertThat(outcome, is(instanceOf(ResourceLimitExceededException.class)));
+        assertThat(outcome, is(budget.violation()));
+        assertThat(provider.answer.isCancelled(), is(true));
+    }
+
+    @Test
+    public void cancellingWhileWaitingReportsTheCancellation() throws InterruptedException {
+        PendingProvider provider = new PendingProvider();
+        ResourceBudget budget = new ResourceBudget(ResourceLimits.UNLIMITED);
+        Reader reader = new Reader(new CustomInput(provider, null, budget, null));
+        provider.asked.await();
+
+        // Lo mismo que hace ExecutionHandle.cancel
+        budget.cancel();
+        reader.thread.interrupt();
+
+        assertThat(reader.await(), is(instanceOf(ExecutionCancelledException.class)));
+        assertThat(provider.answer.isCancelled(), is(true));
+    }
+
+    @Test
+    public void aProviderThatCancelsItsOwnFutureReportsTheCancellationMessage() throws InterruptedException {
+        PendingProvider provider = new PendingProvider();
+        provider.answer.cancel(false);
+
+        Object outcome = new Reader(new CustomInput(provider)).await();
+
+        assertThat(outcome, is(instanceOf(ExecutionCancelledException.class)));
+        assertThat(((RuntimeException) outcome).getMessage(), is("Execution cancelled"));
+    }
+
+    @Test
+    public void aSyncProviderThatIgnoresInterruptsDoesNotOutliveTheWallTime() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        InputProvider stubborn = name -> {
+            // Ignora las interrupciones hasta que el test lo suelta
+            while (true) {
+                try {
+                    release.await();
+                    return "late";
+                } catch (InterruptedException ignored) {
+                }
+            }
+        };
+        ResourceBudget budget = new ResourceBudget(SHORT_WALL_TIME);
+
+        Object outcome = new Reader(new CustomInput(stubborn, null, budget, null)).await();
+        release.countDown();
+
+        assertThat(outcome, is(instanceOf(ResourceLimitExceededException.class)));
+    }
+}
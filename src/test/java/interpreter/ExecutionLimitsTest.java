@@ -0,0 +1,138 @@
+package interpreter;
+
+import implementation.interpreter.ExecutionHandle;
+import implementation.interpreter.MyPrintScriptInterpreter;
+import implementation.limits.ResourceLimits;
+import implementation.metrics.PipelineMetrics;
+import org.junit.Test;
+import util.ErrorCollector;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ExecutionLimitsTest {
+    private static final String READS_INPUT = "println(\"before\");\nlet name: string = readInput(\"name\");\nprintln(name);\n";
+
+    /** InputProvider sincrónico que se queda bloqueado hasta que lo interrumpen. */
+    private static class BlockingProvider implements InputProvider {
+        final CountDownLatch waiting = new CountDownLatch(1);
+
+        @Override
+        public String input(String name) {
+            waiting.countDown();
+            try {
+                new CountDownLatch(1).await();
+                return "never";
+            } catch (InterruptedException e) {
+                throw new RuntimeException("input interrupted", e);
+            }
+        }
+    }
+
+    /** AsyncInputProvider cuya respuesta nunca llega. */
+    private static class PendingProvider implements AsyncInputProvider {
+        final CompletableFuture<String> answer = new CompletableFuture<>();
+        final CountDownLatch asked = new CountDownLatch(1);
+
+        @Override
+        public CompletableFuture<String> inputAsync(String name) {
+            asked.countDown();
+            return answer;
+        }
+    }
+
+    private static InputStream source(String program) {
+        return new ByteArrayInputStream(program.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void cancellingABlockedSyncProviderReportsTheCancellation() throws InterruptedException {
+        BlockingProvider provider = new BlockingProvider();
+        ErrorCollector errors = new ErrorCollector();
+
+        ExecutionHandle handle = new MyPrintScriptInterpreter().executeAsync(source(READS_INPUT), "1.1", message -> {
+        }, errors, provider, ResourceLimits.UNLIMITED);
+        provider.waiting.await();
+        handle.cancel();
+
+        assertThat(handle.await(Duration.ofSeconds(10)), is(true));
+        assertThat(errors.getErrors(), is(List.of("Execution cancelled")));
+    }
+
+    @Test
+    public void theWallTimeLimitInterruptsABlockedSyncExecution() {
+        ResourceLimits limits = ResourceLimits.UNLIMITED.withMaxWallTime(Duration.ofMillis(100));
+        ErrorCollector errors = new ErrorCollector();
+
+        new MyPrintScriptInterpreter(PipelineMetrics.NOOP, limits).execute(source(READS_INPUT), "1.1", message -> {
+        }, errors, new BlockingProvider());
+
+        assertThat(errors.getErrors(), is(List.of("Resource limit exceeded: wall time ms > 100")));
+        // La interrupción del timer no le llega a quien llamó
+        assertThat(Thread.interrupted(), is(false));
+    }
+
+    @Test
+    public void aRunThatFinishesInTimeIsNotInterruptedLater() throws InterruptedException {
+        ResourceLimits limits = ResourceLimits.UNLIMITED.withMaxWallTime(Duration.ofSeconds(1));
+        ErrorCollector errors = new ErrorCollector();
+
+        new MyPrintScriptInterpreter(PipelineMetrics.NOOP, limits).execute(source("println(\"quick\");\n"), "1.1", message -> {
+        }, errors, name -> null);
+        Thread.sleep(1200);
+
+        assertThat(errors.getErrors().isEmpty(), is(true));
+        assertThat(Thread.interrupted(), is(false));
+    }
+
+    @Test
+    public void cancellingAScriptParkedInReadInputCancelsThePendingAnswer() throws InterruptedException {
+        PendingProvider provider = new PendingProvider();
+        ErrorCollector errors = new ErrorCollector();
+
+        ExecutionHandle handle = new MyPrintScriptInterpreter().executeAsync(source(READS_INPUT), "1.1", message -> {
+        }, errors, provider);
+        provider.asked.await();
+        handle.cancel();
+
+        assertThat(handle.await(Duration.ofSeconds(10)), is(true));
+        assertThat(errors.getErrors(), is(List.of("Execution cancelled")));
+        assertThat(provider.answer.isCancelled(), is(true));
+    }
+
+    @Test
+    public void aScriptParkedInReadInputTimesOut() throws InterruptedException {
+        PendingProvider provider = new PendingProvider();
+        ErrorCollector errors = new ErrorCollector();
+
+        ExecutionHandle handle = new MyPrintScriptInterpreter().executeAsync(source(READS_INPUT), "1.1", message -> {
+        }, errors, provider, ResourceLimits.UNLIMITED.withMaxWallTime(Duration.ofMillis(200)));
+
+        assertThat(handle.await(Duration.ofSeconds(10)), is(true));
+        assertThat(errors.getErrors(), is(List.of("Resource limit exceeded: wall time ms > 200")));
+        assertThat(provider.answer.isCancelled(), is(true));
+    }
+
+    @Test
+    public void withoutHandleOrDeadlineTheProviderRunsOnTheScriptThread() {
+        ResourceLimits limits = ResourceLimits.UNLIMITED.withMaxOutputChars(100);
+        List<Thread> askedFrom = new ArrayList<>();
+
+        new MyPrintScriptInterpreter(PipelineMetrics.NOOP, limits).execute(source(READS_INPUT), "1.1", message -> {
+        }, new ErrorCollector(), name -> {
+            askedFrom.add(Thread.currentThread());
+            return "Ana";
+        });
+
+        assertThat(askedFrom, is(List.of(Thread.currentThread())));
+    }
+}
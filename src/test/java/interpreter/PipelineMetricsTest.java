@@ -0,0 +1,43 @@
+package interpreter;
+
+import implementation.interpreter.MyPrintScriptInterpreter;
+import implementation.metrics.MetricsRegistry;
+import implementation.metrics.PipelineMetrics.Counter;
+import implementation.metrics.PipelineMetrics.Phase;
+import org.junit.Test;
+import util.ErrorCollector;
+import util.PrintCollector;
+import util.QueueInputProvider;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class PipelineMetricsTest {
+    private static final String PROGRAM =
+        "println(\"a;b let\");\nlet name: string = readInput(\"name\");\nprintln(name);\n";
+
+    @Test
+    public void countsAreReportedOncePerRun() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        MyPrintScriptInterpreter interpreter = new MyPrintScriptInterpreter(metrics);
+        PrintCollector prints = new PrintCollector();
+        ErrorCollector errors = new ErrorCollector();
+
+        interpreter.execute(new ByteArrayInputStream(PROGRAM.getBytes(StandardCharsets.UTF_8)), "1.1", prints, errors,
+            new QueueInputProvider(new LinkedList<>(List.of("Ana"))));
+
+        assertThat(errors.getErrors().isEmpty(), is(true));
+        // Los ';' y el let dentro del string no cuentan
+        assertThat(metrics.counter(Counter.STATEMENTS).sum(), is(3L));
+        assertThat(metrics.counter(Counter.DECLARATIONS).sum(), is(1L));
+        assertThat(metrics.counter(Counter.PRINTS).sum(), is(2L));
+        assertThat(metrics.counter(Counter.INPUTS).sum(), is(1L));
+        assertThat(metrics.counter(Counter.BYTES_READ).sum(), is((long) PROGRAM.getBytes(StandardCharsets.UTF_8).length));
+        for (Phase phase : Phase.values()) assertThat(phase.name(), metrics.phase(phase).count(), is(1L));
+    }
+}
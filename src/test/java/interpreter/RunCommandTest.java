@@ -0,0 +1,68 @@
+package interpreter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import util.CliRun;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class RunCommandTest {
+    private Path program;
+
+    @Before
+    public void createProgram() throws IOException {
+        program = Files.createTempFile("run", ".ps");
+    }
+
+    @After
+    public void deleteProgram() throws IOException {
+        Files.deleteIfExists(program);
+    }
+
+    @Test
+    public void printsToStdoutAndReadsInputFromStdin() throws IOException {
+        Files.writeString(program, "let name: string = readInput(\"name\");\nprintln(\"hola\");\nprintln(name);\n");
+
+        CliRun run = CliRun.run("Ana\n", "run", program.toString(), "--version", "1.1");
+
+        assertThat(run.exitCode(), is(0));
+        assertThat(run.out(), is("hola" + System.lineSeparator() + "Ana" + System.lineSeparator()));
+        assertThat(run.err(), is(""));
+    }
+
+    @Test
+    public void readingInputAfterStdinIsClosedIsAnError() throws IOException {
+        Files.writeString(program, "println(\"hola\");\nlet name: string = readInput(\"name\");\nprintln(name);\n");
+
+        CliRun run = CliRun.run("", "run", program.toString(), "--version", "1.1");
+
+        assertThat(run.exitCode(), is(1));
+        assertThat(run.out(), is("hola" + System.lineSeparator()));
+        assertThat(run.err(), is("No input for 'name': stdin is closed" + System.lineSeparator()));
+    }
+
+    @Test
+    public void executionErrorsGoToStderrWithExitCodeOne() throws IOException {
+        Files.writeString(program, "println(undefinedVariable);\n");
+
+        CliRun run = CliRun.run("", "run", program.toString());
+
+        assertThat(run.exitCode(), is(1));
+        assertThat(run.err(), containsString("undefinedVariable"));
+    }
+
+    @Test
+    public void invalidArgumentsExitWithTwo() {
+        assertThat(CliRun.run("", "run").exitCode(), is(2));
+        assertThat(CliRun.run("", "explode", program.toString()).exitCode(), is(2));
+        assertThat(CliRun.run("", "run", program.toString(), "--version").exitCode(), is(2));
+        assertThat(CliRun.run("", "run", program.resolveSibling("missing.ps").toString()).exitCode(), is(2));
+    }
+}
@@ -0,0 +1,122 @@
+package interpreter;
+
+import implementation.CustomImplementationFactory;
+import implementation.batch.ExecutionJob;
+import implementation.batch.JobResult;
+import implementation.scheduler.TenantConfig;
+import implementation.scheduler.TenantScheduler;
+import org.junit.Test;
+import util.ErrorCollector;
+import util.PrintCollector;
+import util.QueueInputProvider;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * El executor es manual: los jobs se corren de a uno, en el orden en que el scheduler los despachó,
+ * así el orden de stride scheduling es determinístico.
+ */
+public class TenantSchedulerTest {
+    private final ArrayDeque<Runnable> launched = new ArrayDeque<>();
+    private final List<String> events = new ArrayList<>();
+
+    @Test
+    public void dispatchOrderFollowsTenantWeights() {
+        TenantScheduler scheduler = newScheduler(TenantConfig.DEFAULT);
+        scheduler.register("A", new TenantConfig(3, 1, 100));
+        scheduler.register("B", new TenantConfig(1, 1, 100));
+        for (int i = 0; i < 6; i++) record(scheduler, "A", scheduler.submit("A", job()));
+        for (int i = 0; i < 6; i++) record(scheduler, "B", scheduler.submit("B", job()));
+
+        runAll();
+
+        // A1 ya corría cuando llegó B; desde ahí A recibe 3 turnos por cada uno de B hasta vaciar su cola
+        assertThat(String.join("", events), is("ABAAABAABBBB"));
+    }
+
+    @Test
+    public void idleUnregisteredTenantsKeepTheirMetrics() {
+        TenantScheduler scheduler = newScheduler(TenantConfig.DEFAULT);
+        CompletableFuture<JobResult> first = scheduler.submit("guest", job());
+        runAll();
+        CompletableFuture<JobResult> second = scheduler.submit("guest", job());
+        runAll();
+
+        assertThat(first.join().succeeded(), is(true));
+        assertThat(second.join().succeeded(), is(true));
+        assertThat(scheduler.metrics("guest").submitted(), is(2L));
+        assertThat(scheduler.metrics("guest").completed(), is(2L));
+        assertThat(scheduler.queueDepth("guest"), is(0));
+        assertThat(scheduler.running(), is(0));
+    }
+
+    @Test
+    public void rejectedSubmitsAreCountedWithoutKeepingTheTenant() {
+        TenantScheduler scheduler = newScheduler(new TenantConfig(1, 1, 0));
+        CompletableFuture<JobResult> result = scheduler.submit("guest", job());
+
+        assertThat(failure(result), is(instanceOf(RejectedExecutionException.class)));
+        assertThat(scheduler.metrics("guest").rejected(), is(1L));
+        assertThat(scheduler.metrics("nobody"), is(nullValue()));
+        assertThat(launched.isEmpty(), is(true));
+    }
+
+    @Test
+    public void shutdownFailsQueuedJobsAndLetsRunningOnesFinish() {
+        TenantScheduler scheduler = newScheduler(TenantConfig.DEFAULT);
+        CompletableFuture<JobResult> running = scheduler.submit("A", job());
+        CompletableFuture<JobResult> queued = scheduler.submit("A", job());
+        record(scheduler, "queued", queued);
+
+        scheduler.shutdown();
+
+        assertThat(events, is(List.of("queued")));
+        assertThat(failure(queued), is(instanceOf(RejectedExecutionException.class)));
+        assertThat(failure(scheduler.submit("A", job())), is(instanceOf(RejectedExecutionException.class)));
+
+        runAll();
+        assertThat(running.join().succeeded(), is(true));
+        assertThat(scheduler.running(), is(0));
+        assertThat(launched.isEmpty(), is(true));
+    }
+
+    private TenantScheduler newScheduler(TenantConfig defaultConfig) {
+        return new TenantScheduler(new CustomImplementationFactory(), launched::add, 1, defaultConfig);
+    }
+
+    private void runAll() {
+        while (!launched.isEmpty()) launched.poll().run();
+    }
+
+    // Anota el nombre cuando el future se completa; si se completó con el lock del scheduler tomado queda marcado
+    private void record(TenantScheduler scheduler, String name, CompletableFuture<JobResult> future) {
+        future.whenComplete((result, error) -> events.add(Thread.holdsLock(scheduler) ? name + "(locked)" : name));
+    }
+
+    private static Throwable failure(CompletableFuture<JobResult> future) {
+        try {
+            future.join();
+            return null;
+        } catch (CompletionException e) {
+            return e.getCause();
+        }
+    }
+
+    private static ExecutionJob job() {
+        return new ExecutionJob(new ByteArrayInputStream("println(1);".getBytes(StandardCharsets.UTF_8)), "1.0",
+            new QueueInputProvider(new LinkedList<>()), new PrintCollector(), new ErrorCollector());
+    }
+}
@@ -0,0 +1,49 @@
+package interpreter;
+
+import benchmark.Workloads;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class WorkloadsTest {
+
+    @Test
+    public void repeatConcatenatesTheLine() {
+        byte[] program = Workloads.repeat("println(1);\n", 3);
+
+        assertThat(new String(program, StandardCharsets.UTF_8), is("println(1);\nprintln(1);\nprintln(1);\n"));
+    }
+
+    @Test
+    public void casesWithoutConfigGetTheEmptyConfig() {
+        List<Workloads.Case> cases = Workloads.cases("print-statement", "1.0");
+
+        assertThat(cases.isEmpty(), is(false));
+        for (Workloads.Case c : cases) {
+            assertThat(c.name(), c.source().length > 0, is(true));
+            assertThat(c.name(), c.config(), is(Workloads.EMPTY_CONFIG));
+        }
+    }
+
+    @Test
+    public void casesWithConfigKeepIt() {
+        List<Workloads.Case> cases = Workloads.cases("formatter", "1.0");
+
+        assertThat(cases.isEmpty(), is(false));
+        for (Workloads.Case c : cases) {
+            assertThat(c.name(), c.config(), notNullValue());
+            assertThat(c.name(), c.config(), not(Workloads.EMPTY_CONFIG));
+        }
+    }
+
+    @Test
+    public void resourcesDoNotDependOnTheWorkingDirectoryName() {
+        assertThat(Workloads.resources().resolve("formatter").toFile().isDirectory(), is(true));
+    }
+}
@@ -0,0 +1,67 @@
+package linter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import util.CliRun;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class LintCommandTest {
+    private Path root;
+    private Path config;
+
+    @Before
+    public void createTree() throws IOException {
+        root = Files.createTempDirectory("lint-cli");
+        config = Files.createTempFile("lint-config", ".json");
+        Files.writeString(config, "{\"identifier_format\": \"camel case\"}");
+    }
+
+    @After
+    public void deleteTree() throws IOException {
+        try (var files = Files.list(root)) {
+            for (Path p : files.toList()) Files.delete(p);
+        }
+        Files.delete(root);
+        Files.delete(config);
+    }
+
+    @Test
+    public void diagnosticsArePrintedPerFileWithExitCodeOne() throws IOException {
+        Path bad = Files.writeString(root.resolve("bad.ps"), "let my_var: number = 1;\n");
+        Files.writeString(root.resolve("good.ps"), "let myVar: number = 1;\n");
+
+        CliRun run = CliRun.run("", "lint", root.toString(), "--config", config.toString());
+
+        assertThat(run.exitCode(), is(1));
+        assertThat(run.out(), startsWith(bad + ": "));
+        assertThat(run.out().lines().count(), is(1L));
+    }
+
+    @Test
+    public void aCleanTreeExitsWithZero() throws IOException {
+        Files.writeString(root.resolve("good.ps"), "let myVar: number = 1;\n");
+
+        CliRun run = CliRun.run("", "lint", root.toString(), "--config", config.toString());
+
+        assertThat(run.exitCode(), is(0));
+        assertThat(run.out(), is(""));
+    }
+
+    @Test
+    public void aMissingConfigFileFailsWithExitCodeOne() throws IOException {
+        Files.writeString(root.resolve("good.ps"), "let myVar: number = 1;\n");
+
+        CliRun run = CliRun.run("", "lint", root.toString(), "--config", root.resolve("missing.json").toString());
+
+        assertThat(run.exitCode(), is(1));
+        assertThat(run.err().isEmpty(), is(false));
+    }
+}
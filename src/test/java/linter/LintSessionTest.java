@@ -0,0 +1,85 @@
+package linter;
+
+import implementation.linter.LintDiagnostic;
+import implementation.linter.LintSession;
+import implementation.linter.MyPrintScriptLinter;
+import org.junit.Before;
+import org.junit.Test;
+import util.ErrorCollector;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class LintSessionTest {
+    private static final String VERSION = "1.1";
+    private static final String CONFIG = "{\"identifier_format\": \"camel case\"}";
+
+    private final MyPrintScriptLinter linter = new MyPrintScriptLinter();
+    private LintSession session;
+
+    @Before
+    public void open() throws IOException {
+        session = linter.openSession(VERSION, config());
+    }
+
+    @Test
+    public void positionsAreInDocumentCoordinates() {
+        String document = "let a: number = 1;  let my_var: number = 2;\n   let other_var: number = 3;\n";
+
+        List<LintDiagnostic> diagnostics = session.update(document);
+
+        assertThat(messages(diagnostics), is(fullLint(document)));
+        assertThat(diagnostics.get(0).offset(), is(document.indexOf("let my_var")));
+    }
+
+    @Test
+    public void movedStatementsAreReportedAtTheirNewPosition() {
+        String document = "let my_var: number = 2;\n";
+        session.update(document);
+
+        List<LintDiagnostic> diagnostics = session.edit(0, 0, "let a: number = 1;\n\n  ");
+
+        assertThat(messages(diagnostics), is(fullLint("let a: number = 1;\n\n  " + document)));
+    }
+
+    @Test
+    public void differentlySpacedStatementsDoNotShareResults() {
+        session.update("let my_var: number = 2;\n");
+
+        List<LintDiagnostic> diagnostics = session.update("let    my_var: number = 2;\n");
+
+        assertThat(messages(diagnostics), is(fullLint("let    my_var: number = 2;\n")));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void editsOutsideTheDocumentAreRejected() {
+        session.update("let a: number = 1;");
+        session.edit(5, 100, "");
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void negativeOffsetsAreRejected() {
+        session.update("let a: number = 1;");
+        session.edit(-1, 0, "x");
+    }
+
+    private List<String> fullLint(String document) {
+        ErrorCollector errors = new ErrorCollector();
+        linter.lint(new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)), VERSION, config(), errors);
+        return errors.getErrors();
+    }
+
+    private static List<String> messages(List<LintDiagnostic> diagnostics) {
+        return diagnostics.stream().map(LintDiagnostic::message).toList();
+    }
+
+    private static InputStream config() {
+        return new ByteArrayInputStream(CONFIG.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,52 @@
+package linter;
+
+import implementation.VersionProfile;
+import implementation.linter.CompiledLinterConfig;
+import implementation.linter.LinterConfigAdapter;
+import implementation.linter.MyPrintScriptLinter;
+import org.junit.Test;
+import util.ErrorCollector;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class LinterConfigTest {
+
+    @Test
+    public void emptyConfigIsReportedAsEmpty() {
+        for (String config : List.of("", "  \n", "null")) {
+            ErrorCollector errors = new ErrorCollector();
+            new MyPrintScriptLinter().lint(stream("println(1);"), "1.0", stream(config), errors);
+            assertThat(errors.getErrors(), is(List.of("MyPrintScriptLinter failed: Linter config is empty")));
+        }
+    }
+
+    @Test
+    public void everyAnalysisGetsItsOwnAnalyzerConfig() throws IOException {
+        CompiledLinterConfig compiled = LinterConfigAdapter
+            .read(new StringReader("{\"identifier_format\": \"camel case\", \"maxErrors\": 3}"))
+            .compile(VersionProfile.of("1.1"));
+        assertThat(compiled.analyzerConfig(), not(sameInstance(compiled.analyzerConfig())));
+        assertThat(compiled.errorBudget(), is(3));
+    }
+
+    @Test
+    public void strictModeStopsAtTheFirstError() throws IOException {
+        CompiledLinterConfig compiled = LinterConfigAdapter
+            .read(new StringReader("{\"strictMode\": true, \"maxErrors\": 10}"))
+            .compile(VersionProfile.of("1.0"));
+        assertThat(compiled.errorBudget(), is(1));
+    }
+
+    private static ByteArrayInputStream stream(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+    }
+}